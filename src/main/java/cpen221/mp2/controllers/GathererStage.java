@@ -1,5 +1,7 @@
 package cpen221.mp2.controllers;
 
+import cpen221.mp2.graph.ContractionHierarchy;
+import cpen221.mp2.graph.Graph;
 import cpen221.mp2.graph.ImGraph;
 import cpen221.mp2.models.Link;
 import cpen221.mp2.models.Planet;
@@ -55,4 +57,31 @@ public interface GathererStage {
      * @return the immutable graph representation of the universe.
      */
     public ImGraph<Planet, Link> planetGraph();
+
+    /**
+     * Return a contraction hierarchy over the graph of the universe. It answers
+     * shortest path and distance queries between planets much faster than
+     * planetGraph(), after a one-off preprocessing cost.
+     * <p>
+     * By default a new hierarchy is built on every call from the links that
+     * planetGraph() reports on a shortest path from some planet, which takes a
+     * search from every planet. Those links hold a shortest path between every
+     * pair of planets, so the hierarchy answers every query exactly.
+     * Implementations that keep a hierarchy should return it instead.
+     *
+     * @return the contraction hierarchy of the universe.
+     */
+    public default ContractionHierarchy<Planet, Link> routes() {
+        ImGraph<Planet, Link> planetGraph = planetGraph();
+        Graph<Planet, Link> links = new Graph<>();
+        for (Planet planet: planets()) {
+            links.addVertex(planet);
+        }
+        for (Planet planet: planets()) {
+            for (Link link: planetGraph.getNeighbours(planet, Integer.MAX_VALUE).values()) {
+                links.addEdge(link);
+            }
+        }
+        return new ContractionHierarchy.ContractionHierarchyBuilder<Planet, Link>().graph(links).build();
+    }
 }
@@ -1,12 +1,39 @@
 package cpen221.mp2.graph;
 
+import cpen221.mp2.util.IntMap;
+
 import java.util.*;
 
 public class ALGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E> {
 
-    private Map<Vertex, Map<Vertex, Edge>> mapVertices; //TODO: should this be public??
+    private Map<V, Map<V, E>> mapVertices; //TODO: should this be public??
+    private IntMap<V> idIndex;
+    private int edgeCount;
+    private final boolean views;
+
+    /**
+     * Create an empty graph whose accessors return cloned copies of the
+     * stored vertices and edges. Frozen vertices, and edges between them,
+     * are immutable and are returned as they are.
+     */
     public ALGraph(){
+        this(false);
+    }
+
+    /**
+     * Create an empty graph.
+     *
+     * @param views if true, allVertices, allEdges and getNeighbours return live
+     *              read-only views of the stored vertices and edges instead of
+     *              cloned copies. The views reflect later changes to the graph,
+     *              reject every mutation, and allocate nothing per element.
+     *              Callers must not rename the vertices they are handed;
+     *              freezing the vertices rules that out.
+     */
+    public ALGraph(boolean views){
         mapVertices = new HashMap<>();
+        idIndex = new IntMap<>();
+        this.views = views;
     }
 
     /**
@@ -16,27 +43,24 @@ public class ALGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
      * @return true if added, false if already inside/ could not do it
      */
     public boolean addVertex(V v) {
-        if(vertex(v) || hasID(v)){
+        if(vertex(v) || idIndex.containsKey(v.id())){
             return false;
         }
         mapVertices.put(v, new HashMap<>());
+        idIndex.put(v.id(), v);
         return true;
     }
+
     /**
-     * Checks if the vertex we want to add already exists within the map.
+     * Find the vertex with a given id in constant expected time.
      *
-     * @param v vertex to add
-     * @return true if vertex already exists within the map, false otherwise
+     * @param id the id of the vertex of interest
+     * @return the vertex with that id, or null if there is no such vertex
      */
-    private boolean hasID(Vertex v) {
-        for (Vertex vertex: mapVertices.keySet()) {
-            if (vertex.id() == v.id()) {
-                return true;
-            }
-        }
-        return false;
+    public V vertexById(int id) {
+        V vertex = idIndex.get(id);
+        return views ? vertex : Graph.release(vertex);
     }
-
     /**
      * Check if the id of the vertex is within the indices of the map.
      *
@@ -63,6 +87,7 @@ public class ALGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
         mapVertices.get(e.v1()).put(e.v2(),e);
         //on the index of the v2 vertex, place the v1 vertex with the edge value
         mapVertices.get(e.v2()).put(e.v1(),e);
+        edgeCount++;
         return true;
     }
 
@@ -98,7 +123,7 @@ public class ALGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
      * @throws IllegalArgumentException if the edge does not exist.
      */
     public int edgeLength(V v1, V v2) {
-        Edge edge = mapVertices.get(v1).get(v2);
+        E edge = mapVertices.get(v1).get(v2);
         if(edge != null){
             return edge.length();
         }
@@ -107,6 +132,24 @@ public class ALGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
         }
     }
 
+    /**
+     * Find the edge between two vertices. In view mode, and for frozen edges,
+     * this is the stored edge itself.
+     *
+     * @param v1 the first vertex of the edge
+     * @param v2 the second vertex of the edge
+     * @return the edge connecting v1 and v2
+     * @throws IllegalArgumentException if the edge does not exist.
+     */
+    public E getEdge(V v1, V v2) {
+        Map<V, E> connections = mapVertices.get(v1);
+        E edge = connections == null ? null : connections.get(v2);
+        if (edge == null) {
+            throw new IllegalArgumentException("No edge between " + v1 + " and " + v2);
+        }
+        return views ? edge : Graph.release(edge);
+    }
+
     /**
      * Calculate the sum of the lengths of all edges in the map.
      *
@@ -114,9 +157,9 @@ public class ALGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
      */
     public int edgeLengthSum() {
         int sumTwice = 0;
-        for (Vertex vertex: mapVertices.keySet()) {
-            Map<Vertex, Edge> connectionsMap = mapVertices.get(vertex);
-            for (Vertex v: connectionsMap.keySet()) {
+        for (V vertex: mapVertices.keySet()) {
+            Map<V, E> connectionsMap = mapVertices.get(vertex);
+            for (V v: connectionsMap.keySet()) {
                 sumTwice += connectionsMap.get(v).length();
             }
         }
@@ -135,6 +178,7 @@ public class ALGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
         } else {
             mapVertices.get(e.v1()).remove(e.v2());
             mapVertices.get(e.v2()).remove(e.v1());
+            edgeCount--;
             return true;
         }
     }
@@ -149,8 +193,9 @@ public class ALGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
         if (!vertex(v)) {
             return false;
         } else {
-            mapVertices.remove(v);
-            for (Vertex vertex: mapVertices.keySet()) {
+            edgeCount -= mapVertices.remove(v).size();
+            idIndex.remove(v.id());
+            for (V vertex: mapVertices.keySet()) {
                 mapVertices.get(vertex).remove(v);
             }
             return true;
@@ -163,9 +208,12 @@ public class ALGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
      * @return a set of all vertices in the map
      */
     public Set<V> allVertices() {
+        if (views) {
+            return Collections.unmodifiableSet(mapVertices.keySet());
+        }
         Set<V> allVertices = new HashSet<>();
-        for(Vertex vertex: mapVertices.keySet()){
-            allVertices.add((V)vertex.clone());
+        for(V vertex: mapVertices.keySet()){
+            allVertices.add(Graph.release(vertex));
         }
         return allVertices;
     }
@@ -177,9 +225,12 @@ public class ALGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
      * @return all edges connected to v
      */
     public Set<E> allEdges(V v) {
+        if (views) {
+            return new IncidentEdgeView(v);
+        }
         Set<E> set = new HashSet<>();
-        for (Edge edge: mapVertices.get(v).values()) {
-            set.add((E) edge.clone());
+        for (E edge: mapVertices.get(v).values()) {
+            set.add(Graph.release(edge));
         }
         return set;
     }
@@ -190,10 +241,13 @@ public class ALGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
      * @return all edges in the list
      */
     public Set<E> allEdges() {
+        if (views) {
+            return new EdgeView();
+        }
         Set<E> allEdges = new HashSet<>();
-        for (Vertex vertex: mapVertices.keySet()) {
-            for (Edge edge: mapVertices.get(vertex).values()) {
-                allEdges.add((E) edge.clone());
+        for (V vertex: mapVertices.keySet()) {
+            for (E edge: mapVertices.get(vertex).values()) {
+                allEdges.add(Graph.release(edge));
             }
         }
         return allEdges;
@@ -207,10 +261,109 @@ public class ALGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
      * between v and w, null if v does not exist within the list
      */
     public Map<V, E> getNeighbours(V v) {
+        if (views) {
+            return Collections.unmodifiableMap(mapVertices.get(v));
+        }
         Map<V, E> neighbours = new HashMap<>();
-        for (Vertex vertex: mapVertices.get(v).keySet()) {
-            neighbours.put((V) vertex.clone(), (E) mapVertices.get(v).get(vertex).clone());
+        for (V vertex: mapVertices.get(v).keySet()) {
+            neighbours.put(Graph.release(vertex), Graph.release(mapVertices.get(v).get(vertex)));
         }
         return neighbours;
     }
+
+    /**
+     * A live read-only view of the edges incident on one vertex.
+     */
+    private class IncidentEdgeView extends AbstractSet<E> {
+        private final V v;
+
+        IncidentEdgeView(V v) {
+            this.v = v;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return Collections.unmodifiableCollection(mapVertices.get(v).values()).iterator();
+        }
+
+        @Override
+        public int size() {
+            return mapVertices.get(v).size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Edge<?>)) {
+                return false;
+            }
+            Edge<?> edge = (Edge<?>) o;
+            Map<V, E> connections = mapVertices.get(v);
+            return (edge.v1().equals(v) && edge.equals(connections.get(edge.v2())))
+                    || (edge.v2().equals(v) && edge.equals(connections.get(edge.v1())));
+        }
+    }
+
+    /**
+     * A live read-only view of every edge in the graph. Each edge is stored
+     * under both of its end points, and is reported from the row of its v1.
+     */
+    private class EdgeView extends AbstractSet<E> {
+
+        @Override
+        public Iterator<E> iterator() {
+            Iterator<Map.Entry<V, Map<V, E>>> rows = mapVertices.entrySet().iterator();
+            return new Iterator<E>() {
+                private V rowVertex;
+                private Iterator<E> row = Collections.emptyIterator();
+                private E next = advance();
+
+                private E advance() {
+                    while (true) {
+                        while (row.hasNext()) {
+                            E edge = row.next();
+                            if (edge.v1().equals(rowVertex)) {
+                                return edge;
+                            }
+                        }
+                        if (!rows.hasNext()) {
+                            return null;
+                        }
+                        Map.Entry<V, Map<V, E>> entry = rows.next();
+                        rowVertex = entry.getKey();
+                        row = entry.getValue().values().iterator();
+                    }
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public E next() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+                    E edge = next;
+                    next = advance();
+                    return edge;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return edgeCount;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Edge<?>)) {
+                return false;
+            }
+            Edge<?> edge = (Edge<?>) o;
+            Map<V, E> connections = mapVertices.get(edge.v1());
+            return connections != null && edge.equals(connections.get(edge.v2()));
+        }
+    }
 }
@@ -1,59 +1,119 @@
 package cpen221.mp2.graph;
 
+import cpen221.mp2.util.IntMap;
+
 import java.util.*;
 
 public class AMGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E> {
 
-    private Edge<V>[][] vertexConnections;
-    private Map<Vertex, Integer> vertexToIndex;
+    /*
+     * Vertices hold the indices 0..nextIndex-1 of the matrix, indexToVertex is the
+     * inverse of vertexToIndex, and rows and columns from nextIndex on are empty.
+     * The matrix is square and grows by doubling when every index is taken.
+     */
+    private E[][] vertexConnections;
+    private List<V> indexToVertex;
+    private Map<V, Integer> vertexToIndex;
+    private IntMap<V> idIndex;
     private int nextIndex;
-    private final int maxVertices;
+    private int edgeCount;
+    private final boolean views;
 
     //TODO: fix your broken code eric (.values() stop relying so much on keyset)
 
     /**
-     * Create an empty graph with an upper-bound on the number of vertices
-     * @param maxVertices is greater than 1
+     * Create an empty graph whose accessors return cloned copies of the stored
+     * vertices and edges, with room for a few vertices before it first grows.
+     * Frozen vertices, and edges between them, are returned as they are.
+     */
+    public AMGraph() {
+        this(16, false);
+    }
+
+    /**
+     * Create an empty graph whose accessors return cloned copies of the stored
+     * vertices and edges. Frozen vertices, and edges between them, are returned as they are.
+     * @param maxVertices the number of vertices the graph holds before it first grows, at least 1
      */
     public AMGraph(int maxVertices) {
-        this.maxVertices = maxVertices;
+        this(maxVertices, false);
+    }
+
+    /**
+     * Create an empty graph.
+     * @param maxVertices the number of vertices the graph holds before it first grows, at least 1
+     * @param views if true, allVertices, allEdges and getNeighbours return live
+     *              read-only views of the stored vertices and edges instead of
+     *              cloned copies. The views reflect later changes to the graph,
+     *              reject every mutation, and allocate nothing per element.
+     *              Callers must not rename the vertices they are handed;
+     *              freezing the vertices rules that out.
+     */
+    public AMGraph(int maxVertices, boolean views) {
+        if (maxVertices < 1) {
+            throw new IllegalArgumentException("maxVertices must be at least 1");
+        }
+        this.views = views;
         this.nextIndex = 0;
-        this.vertexConnections = new Edge[maxVertices][maxVertices];
+        this.vertexConnections = matrix(maxVertices);
+        this.indexToVertex = new ArrayList<>();
         this.vertexToIndex = new HashMap<>();
+        this.idIndex = new IntMap<>();
     }
 
     /**
-     * Assigns a new vertex an index to the array of edges.
+     * Assigns a new vertex the next index of the matrix, doubling the matrix
+     * first if it is full. Doubling keeps the copying to amortised time linear
+     * in the number of vertices per vertex added, the size of a row.
      *
      * @param v vertex to add
      * @return true if added, false if already inside/ could not do it
-     * @throws IllegalArgumentException if the size would exceed max indices in array
      */
     public boolean addVertex(V v) {
-        if(vertex(v) || hasID(v)){
+        if(vertex(v) || idIndex.containsKey(v.id())){
             return false;
         }
-        if(vertexToIndex.size() + 1 > maxVertices) {
-            throw new IllegalArgumentException();
+        if(nextIndex == vertexConnections.length) {
+            grow();
         }
         vertexToIndex.put(v, nextIndex);
+        indexToVertex.add(v);
+        idIndex.put(v.id(), v);
         nextIndex++;
         return true;
     }
 
     /**
-     * Checks if the vertex we want to add already exists within the graph
-     *
-     * @param v vertex to add
-     * @return true if vertex already exists within the list, false otherwise
+     * Double the number of rows and columns of the matrix.
      */
-    private boolean hasID(Vertex v) {
-        for (Vertex vertex: vertexToIndex.keySet()) {
-            if (vertex.id() == v.id()) {
-                return true;
-            }
+    private void grow() {
+        E[][] grown = matrix(2 * vertexConnections.length);
+        for (int i = 0; i < nextIndex; i++) {
+            System.arraycopy(vertexConnections[i], 0, grown[i], 0, nextIndex);
         }
-        return false;
+        vertexConnections = grown;
+    }
+
+    /**
+     * Create an empty square matrix.
+     *
+     * @param capacity the number of rows and columns
+     * @return a capacity by capacity matrix of nulls
+     */
+    @SuppressWarnings("unchecked")
+    private E[][] matrix(int capacity) {
+        return (E[][]) new Edge<?>[capacity][capacity];
+    }
+
+    /**
+     * Find the vertex with a given id in constant expected time.
+     *
+     * @param id the id of the vertex of interest
+     * @return the vertex with that id, or null if there is no such vertex
+     */
+    public V vertexById(int id) {
+        V vertex = idIndex.get(id);
+        return views ? vertex : Graph.release(vertex);
     }
 
     /**
@@ -79,6 +139,7 @@ public class AMGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
 
         vertexConnections[vertexToIndex.get(e.v1())][vertexToIndex.get(e.v2())] = e;
         vertexConnections[vertexToIndex.get(e.v2())][vertexToIndex.get(e.v1())] = e;
+        edgeCount++;
 
         return true;
     }
@@ -113,7 +174,7 @@ public class AMGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
      * @throws IllegalArgumentException if the two vertices aren't connected
      */
     public int edgeLength(V v1, V v2) {
-        Edge<V> edge = vertexConnections[vertexToIndex.get(v1)][vertexToIndex.get(v2)];
+        E edge = vertexConnections[vertexToIndex.get(v1)][vertexToIndex.get(v2)];
         if (edge != null) {
             return edge.length();
         } else {
@@ -121,6 +182,25 @@ public class AMGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
         }
     }
 
+    /**
+     * Find the edge between two vertices. In view mode, and for frozen edges,
+     * this is the stored edge itself.
+     *
+     * @param v1 the first vertex of the edge
+     * @param v2 the second vertex of the edge
+     * @return the edge connecting v1 and v2
+     * @throws IllegalArgumentException if the two vertices aren't connected
+     */
+    public E getEdge(V v1, V v2) {
+        Integer i = vertexToIndex.get(v1);
+        Integer j = vertexToIndex.get(v2);
+        E edge = i == null || j == null ? null : vertexConnections[i][j];
+        if (edge == null) {
+            throw new IllegalArgumentException("No edge between " + v1 + " and " + v2);
+        }
+        return views ? edge : Graph.release(edge);
+    }
+
     /**
      * Obtain the sum of the lengths of all edges in the graph.
      *
@@ -130,8 +210,8 @@ public class AMGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
         int sum = 0;
 
         //traverse the upper right triangle of the matrix
-        for(int i = 0; i < maxVertices; i++){
-            for (int j = i + 1; j < maxVertices; j++) {
+        for(int i = 0; i < nextIndex; i++){
+            for (int j = i + 1; j < nextIndex; j++) {
                 if(vertexConnections[i][j] != null){
                     sum += vertexConnections[i][j].length();
                 }
@@ -154,12 +234,15 @@ public class AMGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
         } else {
             vertexConnections[vertexToIndex.get(e.v1())][vertexToIndex.get(e.v2())] = null;
             vertexConnections[vertexToIndex.get(e.v2())][vertexToIndex.get(e.v1())] = null;
+            edgeCount--;
             return true;
         }
     }
 
     /**
-     * Remove a vertex from the graph.
+     * Remove a vertex from the graph in time linear in the number of vertices:
+     * its row and column are cleared, and the vertex with the last index moves
+     * into its index, row and column with it.
      *
      * @param v the vertex to remove
      * @return true if v was successfully removed, false otherwise
@@ -168,17 +251,29 @@ public class AMGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
         if (!vertex(v)) {
             return false;
         } else {
-            //TODO: check this
-            Edge<V>[][] newMatrix = new Edge[maxVertices][maxVertices];
-            int newMatrixIndex = 0;
-            for (int i = 0; i < maxVertices; i++) {
-                if (vertexToIndex.get(v) != i) {
-                    newMatrix[newMatrixIndex] = vertexConnections[i];
-                    newMatrixIndex++;
+            int removed = vertexToIndex.remove(v);
+            int last = nextIndex - 1;
+            edgeCount -= degree(removed);
+            for (int i = 0; i < nextIndex; i++) {
+                vertexConnections[i][removed] = null;
+            }
+            Arrays.fill(vertexConnections[removed], null);
+
+            if (removed != last) {
+                //the removed-last edge is gone, so the moved row and column never point at themselves
+                E[] row = vertexConnections[removed];
+                vertexConnections[removed] = vertexConnections[last];
+                vertexConnections[last] = row;
+                for (int i = 0; i < nextIndex; i++) {
+                    vertexConnections[i][removed] = vertexConnections[i][last];
+                    vertexConnections[i][last] = null;
                 }
+                indexToVertex.set(removed, indexToVertex.get(last));
+                vertexToIndex.put(indexToVertex.get(removed), removed);
             }
-            nextIndex = newMatrixIndex;
-            vertexToIndex.remove(v);
+            indexToVertex.remove(last);
+            nextIndex--;
+            idIndex.remove(v.id());
             return true;
         }
     }
@@ -189,9 +284,12 @@ public class AMGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
      * @return a set of all vertices in the list
      */
     public Set<V> allVertices() {
+        if (views) {
+            return Collections.unmodifiableSet(vertexToIndex.keySet());
+        }
         Set<V> allV = new HashSet<>();
-        for (Vertex v: vertexToIndex.keySet()) {
-            allV.add((V) v.clone());
+        for (V v: vertexToIndex.keySet()) {
+            allV.add(Graph.release(v));
         }
         return allV;
     }
@@ -203,10 +301,13 @@ public class AMGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
      * @return all edges connected to v
      */
     public Set<E> allEdges(V v) {
+        if (views) {
+            return new IncidentEdgeView(v);
+        }
         Set<E> allEdges = new HashSet<>();
-        for(Edge edge: vertexConnections[vertexToIndex.get(v)]){
+        for(E edge: vertexConnections[vertexToIndex.get(v)]){
             if (edge != null) {
-                allEdges.add((E) edge.clone());
+                allEdges.add(Graph.release(edge));
             }
         }
         return allEdges;
@@ -218,12 +319,15 @@ public class AMGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
      * @return all edges in the graph
      */
     public Set<E> allEdges() {
+        if (views) {
+            return new EdgeView();
+        }
         //traverse the upper right triangle of the matrix
         Set<E> allEdges = new HashSet<>();
-        for(int i = 0; i < maxVertices; i++){
-            for (int j = i + 1; j < maxVertices; j++) {
+        for(int i = 0; i < nextIndex; i++){
+            for (int j = i + 1; j < nextIndex; j++) {
                 if(vertexConnections[i][j] != null){
-                    allEdges.add((E) vertexConnections[i][j].clone());
+                    allEdges.add(Graph.release(vertexConnections[i][j]));
                 }
             }
         }
@@ -238,19 +342,222 @@ public class AMGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
      * null if v does not exist within the graph
      */
     public Map<V, E> getNeighbours(V v) {
+        if (views) {
+            return new NeighbourView(v);
+        }
         Map<V, E> vertexEdge = new HashMap<>();
-        for (int i = 0; i < maxVertices; i++) {
-            Edge edge = vertexConnections[vertexToIndex.get(v)][i];
+        for (int i = 0; i < nextIndex; i++) {
+            E edge = vertexConnections[vertexToIndex.get(v)][i];
             if (edge != null) {
-                Vertex otherVertex;
+                V otherVertex;
                 if (edge.v1().equals(v)) {
                     otherVertex = edge.v2();
                 } else {
                     otherVertex = edge.v1();
                 }
-                vertexEdge.put((V) otherVertex.clone(), (E) edge.clone());
+                vertexEdge.put(Graph.release(otherVertex), Graph.release(edge));
             }
         }
         return vertexEdge;
     }
+
+    /**
+     * Return the index of the column after i in row that holds an edge,
+     * or nextIndex if there is none.
+     */
+    private int nextColumn(int row, int i) {
+        int column = i + 1;
+        while (column < nextIndex && vertexConnections[row][column] == null) {
+            column++;
+        }
+        return column;
+    }
+
+    /**
+     * Return the index of a vertex, or -1 if it is not in the graph.
+     */
+    private int indexOf(Object v) {
+        Integer index = vertexToIndex.get(v);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Return the number of edges in a row of the matrix.
+     */
+    private int degree(int row) {
+        int degree = 0;
+        for (int column = 0; column < nextIndex; column++) {
+            if (vertexConnections[row][column] != null) {
+                degree++;
+            }
+        }
+        return degree;
+    }
+
+    /**
+     * A live read-only view of the edges incident on one vertex. The row of the
+     * vertex is looked up on every access, since removing another vertex may move
+     * it; once the vertex is removed, the view is empty.
+     */
+    private class IncidentEdgeView extends AbstractSet<E> {
+        private final V v;
+
+        IncidentEdgeView(V v) {
+            this.v = v;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            int row = indexOf(v);
+            if (row < 0) {
+                return Collections.emptyIterator();
+            }
+            return new Iterator<E>() {
+                private int column = nextColumn(row, -1);
+
+                @Override
+                public boolean hasNext() {
+                    return column < nextIndex;
+                }
+
+                @Override
+                public E next() {
+                    if (column >= nextIndex) {
+                        throw new NoSuchElementException();
+                    }
+                    E edge = vertexConnections[row][column];
+                    column = nextColumn(row, column);
+                    return edge;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            int row = indexOf(v);
+            return row < 0 ? 0 : degree(row);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Edge<?>)) {
+                return false;
+            }
+            Edge<?> edge = (Edge<?>) o;
+            int row = indexOf(v);
+            int i = indexOf(edge.v1());
+            int j = indexOf(edge.v2());
+            return row >= 0 && i >= 0 && j >= 0 && (i == row || j == row)
+                    && edge.equals(vertexConnections[i][j]);
+        }
+    }
+
+    /**
+     * A live read-only view of the neighbours of one vertex. Like IncidentEdgeView,
+     * it looks up the row of the vertex on every access.
+     */
+    private class NeighbourView extends AbstractMap<V, E> {
+        private final V v;
+
+        NeighbourView(V v) {
+            this.v = v;
+        }
+
+        @Override
+        public E get(Object key) {
+            int row = indexOf(v);
+            int column = indexOf(key);
+            return row < 0 || column < 0 ? null : vertexConnections[row][column];
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public Set<Entry<V, E>> entrySet() {
+            return new AbstractSet<Entry<V, E>>() {
+                @Override
+                public Iterator<Entry<V, E>> iterator() {
+                    Iterator<E> edges = new IncidentEdgeView(v).iterator();
+                    return new Iterator<Entry<V, E>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return edges.hasNext();
+                        }
+
+                        @Override
+                        public Entry<V, E> next() {
+                            E edge = edges.next();
+                            V other = edge.v1().equals(v) ? edge.v2() : edge.v1();
+                            return new SimpleImmutableEntry<>(other, edge);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return new IncidentEdgeView(v).size();
+                }
+            };
+        }
+    }
+
+    /**
+     * A live read-only view of every edge in the upper right triangle of the matrix.
+     */
+    private class EdgeView extends AbstractSet<E> {
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<E>() {
+                private int row = 0;
+                private int column = 0;
+
+                {
+                    advance();
+                }
+
+                private void advance() {
+                    column = nextColumn(row, Math.max(column, row));
+                    while (column >= nextIndex && row < nextIndex - 1) {
+                        row++;
+                        column = nextColumn(row, row);
+                    }
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return column < nextIndex;
+                }
+
+                @Override
+                public E next() {
+                    if (column >= nextIndex) {
+                        throw new NoSuchElementException();
+                    }
+                    E edge = vertexConnections[row][column];
+                    advance();
+                    return edge;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return edgeCount;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Edge<?>)) {
+                return false;
+            }
+            Edge<?> edge = (Edge<?>) o;
+            Integer i = vertexToIndex.get(edge.v1());
+            Integer j = vertexToIndex.get(edge.v2());
+            return i != null && j != null && edge.equals(vertexConnections[i][j]);
+        }
+    }
 }
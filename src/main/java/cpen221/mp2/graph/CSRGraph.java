@@ -0,0 +1,778 @@
+package cpen221.mp2.graph;
+
+import cpen221.mp2.util.DisjointSet;
+import cpen221.mp2.util.IndexedIntHeap;
+
+import java.util.*;
+import java.util.function.ToIntFunction;
+
+/**
+ * A frozen graph stored in compressed sparse row form. Vertices are numbered
+ * 0..n-1 in increasing order of id, and the edges incident on vertex i occupy
+ * the slots offsets[i]..offsets[i+1]-1 of the neighbour, weight and edge arrays.
+ * Every undirected edge occupies one slot at each of its end points.
+ * <p>
+ * An instance cannot be mutated once built, so it can be handed out wherever
+ * an ImGraph is expected without defensive copies.
+ *
+ * @param <V> represents a vertex type
+ * @param <E> represents an edge type
+ */
+public class CSRGraph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E> {
+
+    /**
+     * Representation Invariant:
+     * 1. vertices.length == ids.length == n and offsets.length == n + 1.
+     * <p>
+     * 2. ids[i] == vertices[i].id() and ids is strictly increasing.
+     * <p>
+     * 3. offsets[0] == 0, offsets is non-decreasing and
+     * offsets[n] == neighbours.length == weights.length == edges.length.
+     * <p>
+     * 4. For every slot s in offsets[i]..offsets[i+1]-1, edges[s] is incident on
+     * vertices[i] and vertices[neighbours[s]], and weights[s] == edges[s].length().
+     * <p>
+     * 5. If slot s of vertex i points at j, then some slot of vertex j points at i
+     * with the same edge.
+     */
+    private final V[] vertices;
+    private final int[] ids;
+    private final int[] offsets;
+    private final int[] neighbours;
+    private final int[] weights;
+    private final E[] edges;
+
+    private CSRGraph(V[] vertices, int[] offsets, int[] neighbours, int[] weights, E[] edges) {
+        this.vertices = vertices;
+        this.offsets = offsets;
+        this.neighbours = neighbours;
+        this.weights = weights;
+        this.edges = edges;
+        this.ids = new int[vertices.length];
+        for (int i = 0; i < vertices.length; i++) {
+            ids[i] = vertices[i].id();
+        }
+    }
+
+    /**
+     * Return the number of vertices in this graph.
+     *
+     * @return the number of vertices in this graph
+     */
+    public int vertexCount() {
+        return vertices.length;
+    }
+
+    /**
+     * Return the number of edges in this graph.
+     *
+     * @return the number of edges in this graph
+     */
+    public int edgeCount() {
+        return neighbours.length / 2;
+    }
+
+    /**
+     * Find the dense index of a vertex.
+     *
+     * @param v the vertex to look up
+     * @return the index of v, or -1 if v is not part of this graph
+     */
+    int indexOf(Vertex v) {
+        int index = Arrays.binarySearch(ids, v.id());
+        if (index < 0 || !vertices[index].equals(v)) {
+            return -1;
+        }
+        return index;
+    }
+
+    /**
+     * @return the vertex with dense index i
+     */
+    V vertexAt(int i) {
+        return vertices[i];
+    }
+
+    /**
+     * @return the number of edges incident on the vertex with dense index i
+     */
+    int degree(int i) {
+        return offsets[i + 1] - offsets[i];
+    }
+
+    /**
+     * Find the length of the shortest path from one vertex to every vertex.
+     *
+     * @param source index of the start vertex
+     * @return the distance from source to each vertex by dense index,
+     * Integer.MAX_VALUE for vertices that cannot be reached
+     */
+    int[] distances(int source) {
+        return dijkstra(source, Integer.MAX_VALUE).distance;
+    }
+
+    /**
+     * Find the dense index of a vertex that must be part of this graph.
+     *
+     * @param v the vertex to look up
+     * @return the index of v
+     * @throws IllegalArgumentException if v is not part of this graph
+     */
+    private int requireIndex(Vertex v) {
+        int index = indexOf(v);
+        if (index < 0) {
+            throw new IllegalArgumentException(v + " is not part of this graph");
+        }
+        return index;
+    }
+
+    /**
+     * Find the slot holding the edge between the vertices with index i and j.
+     *
+     * @return the slot of the i-j edge in i's row, or -1 if there is no such edge
+     */
+    private int slotOf(int i, int j) {
+        for (int slot = offsets[i]; slot < offsets[i + 1]; slot++) {
+            if (neighbours[slot] == j) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Check if a vertex is part of the graph
+     *
+     * @param v vertex to check in the graph
+     * @return true of v is part of the graph and false otherwise
+     */
+    public boolean vertex(V v) {
+        return indexOf(v) >= 0;
+    }
+
+    /**
+     * Find the vertex with a given id in logarithmic time.
+     *
+     * @param id the id of the vertex of interest
+     * @return the vertex with that id, or null if there is no such vertex
+     */
+    public V vertexById(int id) {
+        int index = Arrays.binarySearch(ids, id);
+        return index < 0 ? null : vertices[index];
+    }
+
+    /**
+     * Check if v1-v2 is an edge in the graph
+     *
+     * @param v1 the first vertex of the edge
+     * @param v2 the second vertex of the edge
+     * @return true of the v1-v2 edge is part of the graph and false otherwise
+     */
+    public boolean edge(V v1, V v2) {
+        int i = indexOf(v1);
+        int j = indexOf(v2);
+        return i >= 0 && j >= 0 && slotOf(i, j) >= 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the edge does not exist.
+     */
+    @Override
+    public E getEdge(V v1, V v2) {
+        int slot = slotOf(requireIndex(v1), requireIndex(v2));
+        if (slot < 0) {
+            throw new IllegalArgumentException("No edge between " + v1 + " and " + v2);
+        }
+        return edges[slot];
+    }
+
+    /**
+     * Find the length of the edge between two vertices.
+     *
+     * @param v1 the first vertex of the edge
+     * @param v2 the second vertex of the edge
+     * @return the length of the v1-v2 edge
+     * @throws IllegalArgumentException if the edge does not exist.
+     */
+    public int edgeLength(V v1, V v2) {
+        return getEdge(v1, v2).length();
+    }
+
+    /**
+     * Obtain the sum of the lengths of all edges in the graph.
+     *
+     * @return the sum of the lengths of all edges in the graph
+     */
+    public int edgeLengthSum() {
+        int sumTwice = 0;
+        for (int weight: weights) {
+            sumTwice += weight;
+        }
+        return sumTwice / 2;
+    }
+
+    /**
+     * Obtain a read-only view of the vertices of this graph, in increasing order of id.
+     *
+     * @return every vertex of this graph
+     */
+    public Set<V> allVertices() {
+        return new VertexView();
+    }
+
+    /**
+     * Obtain a read-only view of the edges incident on a vertex.
+     *
+     * @param v the vertex of interest
+     * @return every edge incident on v
+     * @throws IllegalArgumentException if v is not part of this graph
+     */
+    public Set<E> allEdges(V v) {
+        return new IncidentEdgeView(requireIndex(v));
+    }
+
+    /**
+     * Obtain a read-only view of the edges of this graph.
+     *
+     * @return every edge of this graph
+     */
+    public Set<E> allEdges() {
+        return new EdgeView();
+    }
+
+    /**
+     * Obtain a read-only view of the neighbours of a vertex. Iterating it walks
+     * the vertex's row of the arrays; looking up a neighbour takes time
+     * proportional to the degree of v.
+     *
+     * @param v the vertex of interest
+     * @return a map from each vertex w that neighbours v to the v-w edge
+     * @throws IllegalArgumentException if v is not part of this graph
+     */
+    public Map<V, E> getNeighbours(V v) {
+        return new NeighbourView(requireIndex(v));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if sink cannot be reached from source.
+     */
+    @Override
+    public List<V> shortestPath(V source, V sink) {
+        int from = requireIndex(source);
+        int to = requireIndex(sink);
+        Search search = dijkstra(from, Integer.MAX_VALUE);
+        if (search.distance[to] == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(sink + " cannot be reached from " + source);
+        }
+
+        List<V> reversedOrder = new ArrayList<>();
+        for (int current = to; current != from; current = search.previous[current]) {
+            reversedOrder.add(vertices[current]);
+        }
+        reversedOrder.add(vertices[from]);
+        Collections.reverse(reversedOrder);
+        return reversedOrder;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if sink cannot be reached from source.
+     */
+    @Override
+    public List<V> shortestPath(V source, V sink, ToIntFunction<? super V> heuristic) {
+        int from = requireIndex(source);
+        int to = requireIndex(sink);
+        int[] distance = new int[vertices.length];
+        int[] previous = new int[vertices.length];
+        int[] estimate = new int[vertices.length];
+        Arrays.fill(distance, Integer.MAX_VALUE);
+        BitSet settled = new BitSet(vertices.length);
+        IndexedIntHeap frontier = new IndexedIntHeap(true, vertices.length);
+        distance[from] = 0;
+        previous[from] = -1;
+        estimate[from] = heuristic.applyAsInt(vertices[from]);
+        frontier.add(from, estimate[from]);
+
+        while (frontier.size() > 0) {
+            int current = frontier.poll();
+            if (current == to) {
+                break;
+            }
+            settled.set(current);
+            for (int slot = offsets[current]; slot < offsets[current + 1]; slot++) {
+                int next = neighbours[slot];
+                if (settled.get(next)) {
+                    continue;
+                }
+                int newLength = distance[current] + weights[slot];
+                if (newLength < distance[next]) {
+                    boolean inFrontier = distance[next] != Integer.MAX_VALUE;
+                    if (!inFrontier) {
+                        estimate[next] = heuristic.applyAsInt(vertices[next]);
+                    }
+                    distance[next] = newLength;
+                    previous[next] = current;
+                    if (inFrontier) {
+                        frontier.updatePriority(next, newLength + estimate[next]);
+                    } else {
+                        frontier.add(next, newLength + estimate[next]);
+                    }
+                }
+            }
+        }
+        if (distance[to] == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(sink + " cannot be reached from " + source);
+        }
+
+        List<V> reversedOrder = new ArrayList<>();
+        for (int current = to; current != from; current = previous[current]) {
+            reversedOrder.add(vertices[current]);
+        }
+        reversedOrder.add(vertices[from]);
+        Collections.reverse(reversedOrder);
+        return reversedOrder;
+    }
+
+    @Override
+    public int pathLength(List<V> path) {
+        int sum = 0;
+        for (int i = 0; i < path.size() - 1; i++) {
+            sum += getEdge(path.get(i), path.get(i + 1)).length();
+        }
+        return sum;
+    }
+
+    @Override
+    public Map<V, E> getNeighbours(V v, int range) {
+        int from = requireIndex(v);
+        Search search = dijkstra(from, range);
+        Map<V, E> result = new HashMap<>();
+        for (int i = 0; i < vertices.length; i++) {
+            if (i != from && search.distance[i] <= range) {
+                result.put(vertices[i], edges[search.lastSlot[i]]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Holds the outcome of one single-source search over the arrays.
+     * Entries for vertices the search did not reach are Integer.MAX_VALUE
+     * in distance and -1 in previous and lastSlot.
+     */
+    private static class Search {
+        final int[] distance;
+        final int[] previous;
+        final int[] lastSlot;
+
+        Search(int n) {
+            distance = new int[n];
+            previous = new int[n];
+            lastSlot = new int[n];
+            Arrays.fill(distance, Integer.MAX_VALUE);
+            Arrays.fill(previous, -1);
+            Arrays.fill(lastSlot, -1);
+        }
+    }
+
+    /**
+     * Use Dijkstra's algorithm over the row arrays, stopping once the closest
+     * vertex left on the frontier is further than limit from the source.
+     *
+     * @param source index of the start vertex
+     * @param limit  the largest path length of interest, limit >= 0
+     * @return the distances and shortest path tree, exact for every vertex within limit
+     */
+    private Search dijkstra(int source, int limit) {
+        Search search = new Search(vertices.length);
+        BitSet visited = new BitSet(vertices.length);
+        IndexedIntHeap frontier = new IndexedIntHeap(true, vertices.length);
+        search.distance[source] = 0;
+        frontier.add(source, 0);
+
+        while (frontier.size() > 0) {
+            int current = frontier.poll();
+            int currentLength = search.distance[current];
+            if (currentLength > limit) {
+                break;
+            }
+            visited.set(current);
+            for (int slot = offsets[current]; slot < offsets[current + 1]; slot++) {
+                int next = neighbours[slot];
+                if (visited.get(next)) {
+                    continue;
+                }
+                int newLength = currentLength + weights[slot];
+                if (newLength < search.distance[next]) {
+                    boolean inFrontier = search.distance[next] != Integer.MAX_VALUE;
+                    search.distance[next] = newLength;
+                    search.previous[next] = current;
+                    search.lastSlot[next] = slot;
+                    if (inFrontier) {
+                        frontier.updatePriority(next, newLength);
+                    } else {
+                        frontier.add(next, newLength);
+                    }
+                }
+            }
+        }
+        return search;
+    }
+
+    @Override
+    public Set<ImGraph<V, E>> minimumSpanningComponents(int k) {
+        //use kruskal's algorithm over the slots that hold each edge once
+        List<Integer> slots = new ArrayList<>(edgeCount());
+        for (int i = 0; i < vertices.length; i++) {
+            for (int slot = offsets[i]; slot < offsets[i + 1]; slot++) {
+                if (neighbours[slot] > i) {
+                    slots.add(slot);
+                }
+            }
+        }
+        slots.sort(Comparator.comparingInt(slot -> weights[slot]));
+
+        DisjointSet components = new DisjointSet(vertices.length);
+        List<E> forest = new ArrayList<>();
+        for (int slot: slots) {
+            if (components.count() <= k) {
+                break;
+            }
+            E edge = edges[slot];
+            if (components.union(indexOf(edge.v1()), indexOf(edge.v2()))) {
+                forest.add(edge);
+            }
+        }
+
+        Map<Integer, Graph<V, E>> componentGraphs = new HashMap<>();
+        for (int i = 0; i < vertices.length; i++) {
+            componentGraphs.computeIfAbsent(components.find(i), root -> new Graph<>())
+                    .addVertex(vertices[i]);
+        }
+        for (E edge: forest) {
+            componentGraphs.get(components.find(indexOf(edge.v1()))).addEdge(edge);
+        }
+        return new HashSet<>(componentGraphs.values());
+    }
+
+    /**
+     * Find the vertices of the largest connected component.
+     * Ties are broken in favour of the component holding the smallest id.
+     *
+     * @return the indices of the vertices in the largest component, in increasing order
+     */
+    private int[] largestComponent() {
+        DisjointSet components = new DisjointSet(vertices.length);
+        for (int i = 0; i < vertices.length; i++) {
+            for (int slot = offsets[i]; slot < offsets[i + 1]; slot++) {
+                components.union(i, neighbours[slot]);
+            }
+        }
+        int[] sizes = new int[vertices.length];
+        int biggestRoot = -1;
+        for (int i = 0; i < vertices.length; i++) {
+            int root = components.find(i);
+            sizes[root]++;
+            if (biggestRoot < 0 || sizes[root] > sizes[biggestRoot]) {
+                biggestRoot = root;
+            }
+        }
+        if (biggestRoot < 0) {
+            return new int[0];
+        }
+        int[] members = new int[sizes[biggestRoot]];
+        int count = 0;
+        for (int i = 0; i < vertices.length; i++) {
+            if (components.find(i) == biggestRoot) {
+                members[count++] = i;
+            }
+        }
+        return members;
+    }
+
+    /**
+     * Computes the eccentricity of a vertex within its connected component
+     *
+     * @param source index of the vertex to compute eccentricity for
+     * @return the eccentricity of the vertex
+     */
+    private int eccentricity(int source) {
+        int eccentricity = 0;
+        for (int distance: dijkstra(source, Integer.MAX_VALUE).distance) {
+            if (distance != Integer.MAX_VALUE) {
+                eccentricity = Math.max(distance, eccentricity);
+            }
+        }
+        return eccentricity;
+    }
+
+    @Override
+    public int diameter() {
+        int diameter = 0;
+        for (int i: largestComponent()) {
+            diameter = Math.max(eccentricity(i), diameter);
+        }
+        return diameter;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Ties are broken in favour of the vertex with the smallest id.
+     */
+    @Override
+    public V getCenter() {
+        int minEccentricity = Integer.MAX_VALUE;
+        V center = null;
+        for (int i: largestComponent()) {
+            int eccentricity = eccentricity(i);
+            if (eccentricity < minEccentricity) {
+                minEccentricity = eccentricity;
+                center = vertices[i];
+            }
+        }
+        return center;
+    }
+
+    /**
+     * A read-only view of the vertex array.
+     */
+    private class VertexView extends AbstractSet<V> {
+
+        @Override
+        public Iterator<V> iterator() {
+            return Collections.unmodifiableList(Arrays.asList(vertices)).iterator();
+        }
+
+        @Override
+        public int size() {
+            return vertices.length;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Vertex && indexOf((Vertex) o) >= 0;
+        }
+    }
+
+    /**
+     * A read-only view of the edges in one row of the arrays.
+     */
+    private class IncidentEdgeView extends AbstractSet<E> {
+        private final int row;
+
+        IncidentEdgeView(int row) {
+            this.row = row;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return Collections.unmodifiableList(Arrays.asList(edges).subList(offsets[row], offsets[row + 1]))
+                    .iterator();
+        }
+
+        @Override
+        public int size() {
+            return degree(row);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Edge<?>)) {
+                return false;
+            }
+            Edge<?> edge = (Edge<?>) o;
+            int i = indexOf(edge.v1());
+            int j = indexOf(edge.v2());
+            if (i < 0 || j < 0 || (i != row && j != row)) {
+                return false;
+            }
+            int slot = slotOf(i, j);
+            return slot >= 0 && edge.equals(edges[slot]);
+        }
+    }
+
+    /**
+     * A read-only view of the neighbours in one row of the arrays.
+     */
+    private class NeighbourView extends AbstractMap<V, E> {
+        private final int row;
+
+        NeighbourView(int row) {
+            this.row = row;
+        }
+
+        @Override
+        public E get(Object key) {
+            if (!(key instanceof Vertex)) {
+                return null;
+            }
+            int column = indexOf((Vertex) key);
+            int slot = column < 0 ? -1 : slotOf(row, column);
+            return slot < 0 ? null : edges[slot];
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public Set<Entry<V, E>> entrySet() {
+            return new AbstractSet<Entry<V, E>>() {
+                @Override
+                public Iterator<Entry<V, E>> iterator() {
+                    return new Iterator<Entry<V, E>>() {
+                        private int slot = offsets[row];
+
+                        @Override
+                        public boolean hasNext() {
+                            return slot < offsets[row + 1];
+                        }
+
+                        @Override
+                        public Entry<V, E> next() {
+                            if (slot >= offsets[row + 1]) {
+                                throw new NoSuchElementException();
+                            }
+                            Entry<V, E> entry = new SimpleImmutableEntry<>(vertices[neighbours[slot]], edges[slot]);
+                            slot++;
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return degree(row);
+                }
+            };
+        }
+    }
+
+    /**
+     * A read-only view of every edge, each reported from the row of its
+     * end point with the smaller index.
+     */
+    private class EdgeView extends AbstractSet<E> {
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<E>() {
+                private int row = 0;
+                private int slot = advance(0);
+
+                private int advance(int from) {
+                    for (int next = from; next < neighbours.length; next++) {
+                        while (next >= offsets[row + 1]) {
+                            row++;
+                        }
+                        if (neighbours[next] > row) {
+                            return next;
+                        }
+                    }
+                    return neighbours.length;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return slot < neighbours.length;
+                }
+
+                @Override
+                public E next() {
+                    if (slot >= neighbours.length) {
+                        throw new NoSuchElementException();
+                    }
+                    E edge = edges[slot];
+                    slot = advance(slot + 1);
+                    return edge;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return edgeCount();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Edge<?>)) {
+                return false;
+            }
+            Edge<?> edge = (Edge<?>) o;
+            int i = indexOf(edge.v1());
+            int j = indexOf(edge.v2());
+            int slot = i < 0 || j < 0 ? -1 : slotOf(i, j);
+            return slot >= 0 && edge.equals(edges[slot]);
+        }
+    }
+
+    /**
+     * An instance builds a CSRGraph from the current contents of an MGraph.
+     * It will refuse to build if no source graph is set.
+     */
+    public static class CSRGraphBuilder<V extends Vertex, E extends Edge<V>> {
+        private MGraph<V, E> source;
+
+        /**
+         * Set the graph whose vertices and edges are copied into the CSRGraph.
+         */
+        public CSRGraphBuilder<V, E> graph(MGraph<V, E> source) {
+            this.source = source;
+            return this;
+        }
+
+        /**
+         * Build the CSRGraph. Later changes to the source graph are not reflected in it.
+         * Precondition: the source graph has been set.
+         */
+        @SuppressWarnings("unchecked")
+        public CSRGraph<V, E> build() {
+            if (source == null) {
+                throw new IllegalStateException("unset CSRGraphBuilder params");
+            }
+
+            List<V> sorted = new ArrayList<>(source.allVertices());
+            sorted.sort(Comparator.comparingInt(Vertex::id));
+            V[] vertices = (V[]) new Vertex[sorted.size()];
+            Map<Vertex, Integer> index = new HashMap<>();
+            for (int i = 0; i < vertices.length; i++) {
+                vertices[i] = sorted.get(i);
+                index.put(vertices[i], i);
+            }
+
+            //each edge is read once and shared by the rows of both of its end points
+            Set<E> allEdges = source.allEdges();
+            int[] offsets = new int[vertices.length + 1];
+            for (E edge: allEdges) {
+                offsets[index.get(edge.v1()) + 1]++;
+                offsets[index.get(edge.v2()) + 1]++;
+            }
+            for (int i = 0; i < vertices.length; i++) {
+                offsets[i + 1] += offsets[i];
+            }
+
+            int[] next = Arrays.copyOf(offsets, vertices.length);
+            int[] neighbours = new int[offsets[vertices.length]];
+            int[] weights = new int[neighbours.length];
+            E[] edges = (E[]) new Edge<?>[neighbours.length];
+            for (E edge: allEdges) {
+                int i = index.get(edge.v1());
+                int j = index.get(edge.v2());
+                neighbours[next[i]] = j;
+                weights[next[i]] = edge.length();
+                edges[next[i]++] = edge;
+                neighbours[next[j]] = i;
+                weights[next[j]] = edge.length();
+                edges[next[j]++] = edge;
+            }
+            return new CSRGraph<>(vertices, offsets, neighbours, weights, edges);
+        }
+    }
+}
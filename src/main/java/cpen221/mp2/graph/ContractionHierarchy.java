@@ -0,0 +1,586 @@
+package cpen221.mp2.graph;
+
+import cpen221.mp2.util.IndexedIntHeap;
+
+import java.util.*;
+
+/**
+ * A contraction hierarchy over a frozen snapshot of a graph, for answering many
+ * point-to-point shortest path queries on the same graph.
+ * <p>
+ * Preprocessing removes ("contracts") the vertices one at a time, cheapest first.
+ * Before a vertex is removed, a shortcut is added between two of its remaining
+ * neighbours whenever the path through it may be the only shortest path between
+ * them. Every shortest path then has a version that only climbs to vertices
+ * contracted later and then only descends, so a query is two small upward searches,
+ * one from each end. Shortcuts on the resulting path are unpacked back into the
+ * original edges.
+ *
+ * @param <V> represents a vertex type
+ * @param <E> represents an edge type
+ */
+public class ContractionHierarchy<V extends Vertex, E extends Edge<V>> {
+
+    /**
+     * Representation Invariant:
+     * 1. vertices.length == ids.length == n and offsets.length == n + 1.
+     * <p>
+     * 2. ids[i] == vertices[i].id() and ids is strictly increasing.
+     * <p>
+     * 3. The arcs offsets[i]..offsets[i+1]-1 are the arcs from vertex i to vertices
+     * that were contracted after i: for each such arc a, low[a] == i and high[a] is
+     * the other end.
+     * <p>
+     * 4. For every arc a, either middle[a] == -1 and edges[a] is an original edge
+     * joining low[a] and high[a] with length weights[a], or middle[a] is a vertex
+     * contracted before low[a], edges[a] == null, and weights[a] is the total length
+     * of the arcs joining middle[a] to low[a] and to high[a].
+     * <p>
+     * 5. For any two vertices, the length of the shortest path between them in the
+     * snapshot equals the length of the shortest path that uses arcs and first only
+     * moves to vertices contracted later, then only to vertices contracted earlier.
+     */
+    private final V[] vertices;
+    private final int[] ids;
+    private final int[] offsets;
+    private final int[] low;
+    private final int[] high;
+    private final int[] weights;
+    private final int[] middle;
+    private final E[] edges;
+    /* Search buffers are reused between queries, one pair per thread */
+    private final ThreadLocal<Search[]> searches;
+
+    private ContractionHierarchy(V[] vertices, int[] offsets, int[] high, int[] weights,
+                                 int[] middle, E[] edges) {
+        this.vertices = vertices;
+        this.offsets = offsets;
+        this.high = high;
+        this.weights = weights;
+        this.middle = middle;
+        this.edges = edges;
+        this.ids = new int[vertices.length];
+        this.low = new int[high.length];
+        for (int i = 0; i < vertices.length; i++) {
+            ids[i] = vertices[i].id();
+            Arrays.fill(low, offsets[i], offsets[i + 1], i);
+        }
+        this.searches = ThreadLocal.withInitial(
+                () -> new Search[] {new Search(vertices.length), new Search(vertices.length)});
+    }
+
+    /**
+     * Return the number of vertices in the hierarchy.
+     *
+     * @return the number of vertices in the hierarchy
+     */
+    public int vertexCount() {
+        return vertices.length;
+    }
+
+    /**
+     * Return the number of shortcuts preprocessing added to the graph.
+     *
+     * @return the number of shortcuts in the hierarchy
+     */
+    public int shortcutCount() {
+        int count = 0;
+        for (int m: middle) {
+            if (m >= 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Find the length of the shortest path between two vertices.
+     *
+     * @param source the start vertex
+     * @param sink the end vertex
+     * @return the length of the shortest path from source to sink,
+     * or Integer.MAX_VALUE if there is no such path
+     * @throws IllegalArgumentException if source or sink is not part of the graph
+     */
+    public int distance(V source, V sink) {
+        Search[] search = searches.get();
+        int meeting = query(requireIndex(source), requireIndex(sink), search[0], search[1]);
+        return meeting < 0 ? Integer.MAX_VALUE : search[0].distance[meeting] + search[1].distance[meeting];
+    }
+
+    /**
+     * Compute the shortest path from source to sink.
+     *
+     * @param source the start vertex
+     * @param sink the end vertex
+     * @return the vertices, in order, on the shortest path from source to sink (both end points are part of the list)
+     * @throws IllegalArgumentException if source or sink is not part of the graph,
+     * or sink cannot be reached from source
+     */
+    public List<V> shortestPath(V source, V sink) {
+        List<V> path = new ArrayList<>();
+        path.add(source);
+        unpack(source, sink, path, null);
+        return path;
+    }
+
+    /**
+     * Compute the edges of the shortest path from source to sink.
+     *
+     * @param source the start vertex
+     * @param sink the end vertex
+     * @return the original edges, in order, on the shortest path from source to sink;
+     * empty if source equals sink
+     * @throws IllegalArgumentException if source or sink is not part of the graph,
+     * or sink cannot be reached from source
+     */
+    public List<E> shortestPathEdges(V source, V sink) {
+        List<E> path = new ArrayList<>();
+        unpack(source, sink, null, path);
+        return path;
+    }
+
+    /**
+     * Find the dense index of a vertex that must be part of the hierarchy.
+     *
+     * @param v the vertex to look up
+     * @return the index of v
+     * @throws IllegalArgumentException if v is not part of the hierarchy
+     */
+    private int requireIndex(Vertex v) {
+        int index = Arrays.binarySearch(ids, v.id());
+        if (index < 0 || !vertices[index].equals(v)) {
+            throw new IllegalArgumentException(v + " is not part of this graph");
+        }
+        return index;
+    }
+
+    /**
+     * The state of one direction of a query. Only the entries listed in touched
+     * differ from their initial values, so a search is reset in time proportional
+     * to the number of vertices it reached.
+     */
+    private static class Search {
+        final int[] distance;
+        /* The arc a vertex was reached through, -1 for the start vertex */
+        final int[] arc;
+        final int[] touched;
+        int touchedCount;
+        final IndexedIntHeap frontier;
+
+        Search(int n) {
+            distance = new int[n];
+            arc = new int[n];
+            touched = new int[n];
+            frontier = new IndexedIntHeap(true, n);
+            Arrays.fill(distance, Integer.MAX_VALUE);
+        }
+
+        void start(int source) {
+            for (int i = 0; i < touchedCount; i++) {
+                distance[touched[i]] = Integer.MAX_VALUE;
+            }
+            touchedCount = 0;
+            frontier.clear();
+            label(source, 0, -1);
+        }
+
+        void label(int v, int length, int through) {
+            if (distance[v] == Integer.MAX_VALUE) {
+                touched[touchedCount++] = v;
+                frontier.add(v, length);
+            } else {
+                frontier.updatePriority(v, length);
+            }
+            distance[v] = length;
+            arc[v] = through;
+        }
+
+        /**
+         * @return true iff the frontier holds a vertex closer than bound
+         */
+        boolean open(int bound) {
+            return frontier.size() > 0 && distance[frontier.peek()] < bound;
+        }
+    }
+
+    /**
+     * Run the two upward searches of a query. A vertex reached by both searches is a
+     * candidate meeting point; a search stops once its frontier cannot improve on the
+     * best candidate.
+     *
+     * @return the best meeting vertex, or -1 if the searches never meet
+     */
+    private int query(int source, int sink, Search forward, Search backward) {
+        forward.start(source);
+        backward.start(sink);
+        int meeting = source == sink ? source : -1;
+        int best = source == sink ? 0 : Integer.MAX_VALUE;
+
+        boolean fromSource = true;
+        while (forward.open(best) || backward.open(best)) {
+            //alternate between the searches, skipping one that has finished
+            Search search = fromSource ? forward : backward;
+            Search other = fromSource ? backward : forward;
+            fromSource = !fromSource;
+            if (!search.open(best)) {
+                continue;
+            }
+
+            int current = search.frontier.poll();
+            if (stalled(search, current)) {
+                continue;
+            }
+            for (int a = offsets[current]; a < offsets[current + 1]; a++) {
+                int next = high[a];
+                int newLength = search.distance[current] + weights[a];
+                if (newLength >= search.distance[next]) {
+                    continue;
+                }
+                search.label(next, newLength, a);
+                if (other.distance[next] != Integer.MAX_VALUE && newLength + other.distance[next] < best) {
+                    best = newLength + other.distance[next];
+                    meeting = next;
+                }
+            }
+        }
+        return meeting;
+    }
+
+    /**
+     * Check if a search reached v on a path that cannot be shortest: some vertex
+     * contracted after v was reached with a length that, plus the arc down to v,
+     * is shorter. Such a vertex need not be expanded (stall-on-demand).
+     *
+     * @return true iff v cannot be on a shortest upward path of the search
+     */
+    private boolean stalled(Search search, int v) {
+        for (int a = offsets[v]; a < offsets[v + 1]; a++) {
+            int w = high[a];
+            if (search.distance[w] != Integer.MAX_VALUE && search.distance[w] + weights[a] < search.distance[v]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find the shortest path from source to sink and unpack its arcs into original
+     * edges, appending the vertices after source and the edges to the given lists.
+     *
+     * @param path the list to append vertices to, or null
+     * @param edgePath the list to append edges to, or null
+     * @throws IllegalArgumentException if sink cannot be reached from source
+     */
+    private void unpack(V source, V sink, List<V> path, List<E> edgePath) {
+        Search[] search = searches.get();
+        int meeting = query(requireIndex(source), requireIndex(sink), search[0], search[1]);
+        if (meeting < 0) {
+            throw new IllegalArgumentException(sink + " cannot be reached from " + source);
+        }
+
+        //the upward path of the forward search is read back to front
+        List<Integer> climb = new ArrayList<>();
+        for (int v = meeting; search[0].arc[v] >= 0; v = low[search[0].arc[v]]) {
+            climb.add(search[0].arc[v]);
+        }
+        Deque<int[]> stack = new ArrayDeque<>();
+        for (int i = climb.size() - 1; i >= 0; i--) {
+            int a = climb.get(i);
+            expand(a, low[a], stack, path, edgePath);
+        }
+        for (int v = meeting; search[1].arc[v] >= 0; v = low[search[1].arc[v]]) {
+            expand(search[1].arc[v], v, stack, path, edgePath);
+        }
+    }
+
+    /**
+     * Append the original edges that make up an arc, walking it from one of its ends.
+     *
+     * @param a the arc to unpack
+     * @param from the end of a the walk starts at
+     * @param stack an empty stack to work with
+     * @param path the list to append the vertices after from to, or null
+     * @param edgePath the list to append edges to, or null
+     */
+    private void expand(int a, int from, Deque<int[]> stack, List<V> path, List<E> edgePath) {
+        stack.push(new int[] {a, from});
+        while (!stack.isEmpty()) {
+            int[] step = stack.pop();
+            int arc = step[0];
+            int start = step[1];
+            int end = low[arc] == start ? high[arc] : low[arc];
+            if (middle[arc] < 0) {
+                if (path != null) {
+                    path.add(vertices[end]);
+                }
+                if (edgePath != null) {
+                    edgePath.add(edges[arc]);
+                }
+            } else {
+                //push the second half first so the first half is walked first
+                int m = middle[arc];
+                stack.push(new int[] {arcFrom(m, end), m});
+                stack.push(new int[] {arcFrom(m, start), start});
+            }
+        }
+    }
+
+    /**
+     * @return the arc joining m to a vertex v contracted after m
+     */
+    private int arcFrom(int m, int v) {
+        for (int a = offsets[m]; a < offsets[m + 1]; a++) {
+            if (high[a] == v) {
+                return a;
+            }
+        }
+        throw new IllegalStateException("missing arc");
+    }
+
+    /**
+     * Builds a ContractionHierarchy from a snapshot of a graph.
+     *
+     * @param <V> represents a vertex type
+     * @param <E> represents an edge type
+     */
+    public static class ContractionHierarchyBuilder<V extends Vertex, E extends Edge<V>> {
+        /* A witness search gives up after settling this many vertices */
+        private static final int WITNESS_LIMIT = 64;
+
+        private MGraph<V, E> source;
+
+        /* Build state: the arcs between vertices that have not been contracted yet */
+        private List<Map<Integer, Arc<E>>> remaining;
+        private int[] witnessDistance;
+        private List<Integer> witnessTouched;
+        private IndexedIntHeap witnessFrontier;
+        /* The number of contracted neighbours of each vertex, and its depth in the hierarchy */
+        private int[] contractedNeighbours;
+        private int[] level;
+
+        /**
+         * Set the graph whose vertices and edges are preprocessed.
+         */
+        public ContractionHierarchyBuilder<V, E> graph(MGraph<V, E> source) {
+            this.source = source;
+            return this;
+        }
+
+        /**
+         * An arc between two vertices during contraction.
+         */
+        private static class Arc<E> {
+            int weight;
+            int middle;
+            E edge;
+
+            Arc(int weight, int middle, E edge) {
+                this.weight = weight;
+                this.middle = middle;
+                this.edge = edge;
+            }
+        }
+
+        /**
+         * Build the hierarchy. Later changes to the source graph are not reflected in it.
+         * Precondition: the source graph has been set.
+         */
+        @SuppressWarnings("unchecked")
+        public ContractionHierarchy<V, E> build() {
+            if (source == null) {
+                throw new IllegalStateException("unset ContractionHierarchyBuilder params");
+            }
+
+            List<V> sorted = new ArrayList<>(source.allVertices());
+            sorted.sort(Comparator.comparingInt(Vertex::id));
+            int n = sorted.size();
+            V[] vertices = (V[]) new Vertex[n];
+            Map<Vertex, Integer> index = new HashMap<>();
+            remaining = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                vertices[i] = sorted.get(i);
+                index.put(vertices[i], i);
+                remaining.add(new HashMap<>());
+            }
+            for (E edge: source.allEdges()) {
+                int i = index.get(edge.v1());
+                int j = index.get(edge.v2());
+                Arc<E> arc = new Arc<>(edge.length(), -1, edge);
+                remaining.get(i).put(j, arc);
+                remaining.get(j).put(i, arc);
+            }
+
+            witnessDistance = new int[n];
+            Arrays.fill(witnessDistance, Integer.MAX_VALUE);
+            witnessTouched = new ArrayList<>();
+            witnessFrontier = new IndexedIntHeap(true, n);
+
+            //contract the cheapest vertex first, see cost
+            contractedNeighbours = new int[n];
+            level = new int[n];
+            int[] priority = new int[n];
+            for (int v = 0; v < n; v++) {
+                priority[v] = cost(v);
+            }
+            IndexedIntHeap order = new IndexedIntHeap(true, priority);
+
+            List<Map<Integer, Arc<E>>> upward = new ArrayList<>(Collections.nCopies(n, null));
+            while (order.size() > 0) {
+                int v = order.poll();
+                //priorities are only refreshed lazily, so check v is still the cheapest
+                int current = cost(v);
+                if (order.size() > 0 && current > priority[order.peek()]) {
+                    priority[v] = current;
+                    order.add(v, current);
+                    continue;
+                }
+
+                contract(v, false);
+                Map<Integer, Arc<E>> arcs = remaining.get(v);
+                upward.set(v, arcs);
+                remaining.set(v, null);
+                //the neighbours' priorities are now stale and are refreshed when polled
+                for (int u: arcs.keySet()) {
+                    remaining.get(u).remove(v);
+                    contractedNeighbours[u]++;
+                    level[u] = Math.max(level[u], level[v] + 1);
+                }
+            }
+
+            int[] offsets = new int[n + 1];
+            for (int v = 0; v < n; v++) {
+                offsets[v + 1] = offsets[v] + upward.get(v).size();
+            }
+            int[] high = new int[offsets[n]];
+            int[] weights = new int[offsets[n]];
+            int[] middle = new int[offsets[n]];
+            E[] edges = (E[]) new Edge<?>[offsets[n]];
+            for (int v = 0; v < n; v++) {
+                int a = offsets[v];
+                for (Map.Entry<Integer, Arc<E>> entry: upward.get(v).entrySet()) {
+                    Arc<E> arc = entry.getValue();
+                    high[a] = entry.getKey();
+                    weights[a] = arc.weight;
+                    middle[a] = arc.middle;
+                    edges[a++] = arc.edge;
+                }
+            }
+
+            remaining = null;
+            witnessDistance = null;
+            witnessTouched = null;
+            witnessFrontier = null;
+            contractedNeighbours = null;
+            level = null;
+            return new ContractionHierarchy<>(vertices, offsets, high, weights, middle, edges);
+        }
+
+        /**
+         * Estimate how much contracting v now would grow the hierarchy. Vertices that
+         * add few shortcuts relative to the arcs they remove come first; vertices next
+         * to many contracted vertices, or high above them, are put off so that the
+         * contracted vertices stay spread out and the hierarchy stays shallow.
+         *
+         * @param v a vertex that has not been contracted
+         * @return the contraction priority of v, lower is contracted sooner
+         */
+        private int cost(int v) {
+            int edgeDifference = contract(v, true) - remaining.get(v).size();
+            return 2 * edgeDifference + contractedNeighbours[v] + level[v];
+        }
+
+        /**
+         * Find the shortcuts needed to contract v, and add them unless simulating.
+         * A shortcut u-w is needed unless a witness search finds a path from u to w
+         * that avoids v and is no longer than the path through v.
+         *
+         * @param v a vertex that has not been contracted
+         * @param simulate true to only count the shortcuts
+         * @return the number of shortcuts needed
+         */
+        private int contract(int v, boolean simulate) {
+            Map<Integer, Arc<E>> arcs = remaining.get(v);
+            List<Integer> neighbours = new ArrayList<>(arcs.keySet());
+            int shortcuts = 0;
+            for (int i = 0; i < neighbours.size() - 1; i++) {
+                int u = neighbours.get(i);
+                int toU = arcs.get(u).weight;
+                int limit = 0;
+                for (int j = i + 1; j < neighbours.size(); j++) {
+                    limit = Math.max(limit, toU + arcs.get(neighbours.get(j)).weight);
+                }
+                witnessSearch(u, v, limit);
+
+                for (int j = i + 1; j < neighbours.size(); j++) {
+                    int w = neighbours.get(j);
+                    int through = toU + arcs.get(w).weight;
+                    if (witnessDistance[w] <= through) {
+                        continue;
+                    }
+                    shortcuts++;
+                    if (!simulate) {
+                        addShortcut(u, w, v, through);
+                    }
+                }
+            }
+            return shortcuts;
+        }
+
+        /**
+         * Add or shorten the arc between u and w so it stands for the path through m.
+         */
+        private void addShortcut(int u, int w, int m, int length) {
+            Arc<E> arc = remaining.get(u).get(w);
+            if (arc == null) {
+                arc = new Arc<>(length, m, null);
+                remaining.get(u).put(w, arc);
+                remaining.get(w).put(u, arc);
+            } else if (length < arc.weight) {
+                arc.weight = length;
+                arc.middle = m;
+                arc.edge = null;
+            }
+        }
+
+        /**
+         * Run a bounded dijkstra from source over the vertices that have not been
+         * contracted, never entering skip. On return witnessDistance holds the
+         * lengths found; vertices that were not reached hold Integer.MAX_VALUE.
+         */
+        private void witnessSearch(int source, int skip, int limit) {
+            for (int v: witnessTouched) {
+                witnessDistance[v] = Integer.MAX_VALUE;
+            }
+            witnessTouched.clear();
+
+            IndexedIntHeap frontier = witnessFrontier;
+            frontier.clear();
+            witnessDistance[source] = 0;
+            witnessTouched.add(source);
+            frontier.add(source, 0);
+            int settled = 0;
+            while (frontier.size() > 0 && settled++ < WITNESS_LIMIT) {
+                int current = frontier.poll();
+                int currentLength = witnessDistance[current];
+                if (currentLength > limit) {
+                    break;
+                }
+                for (Map.Entry<Integer, Arc<E>> entry: remaining.get(current).entrySet()) {
+                    int next = entry.getKey();
+                    int newLength = currentLength + entry.getValue().weight;
+                    if (next == skip || newLength >= witnessDistance[next]) {
+                        continue;
+                    }
+                    if (witnessDistance[next] == Integer.MAX_VALUE) {
+                        witnessTouched.add(next);
+                        frontier.add(next, newLength);
+                    } else {
+                        frontier.updatePriority(next, newLength);
+                    }
+                    witnessDistance[next] = newLength;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package cpen221.mp2.graph;
+
+import cpen221.mp2.util.PriorityQueue;
+
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A lazy, resumable run of Dijkstra's algorithm from one source of a Graph.
+ * Each call to next() settles one more vertex and returns it with its path length
+ * and the last edge of its shortest path, in non-decreasing order of path length.
+ * The search advances only as far as the caller consumes it, so a caller that only
+ * wants the closest few vertices never pays for a full search, and a caller that
+ * stops can come back later and continue where it left off.
+ * <p>
+ * The iterator is fail-fast: once the graph is modified, next() throws a
+ * ConcurrentModificationException.
+ *
+ * @param <V> represents a vertex type
+ * @param <E> represents an edge type
+ */
+public class DijkstraIterator<V extends Vertex, E extends Edge<V>> implements Iterator<DijkstraIterator.Settled<V, E>> {
+
+    /**
+     * A vertex settled by the search.
+     *
+     * @param <V> represents a vertex type
+     * @param <E> represents an edge type
+     */
+    public static class Settled<V extends Vertex, E extends Edge<V>> {
+        private final V vertex;
+        private final int distance;
+        private final E lastEdge;
+
+        private Settled(V vertex, int distance, E lastEdge) {
+            this.vertex = vertex;
+            this.distance = distance;
+            this.lastEdge = lastEdge;
+        }
+
+        /**
+         * @return the settled vertex
+         */
+        public V vertex() {
+            return vertex;
+        }
+
+        /**
+         * @return the length of the shortest path from the source to the vertex
+         */
+        public int distance() {
+            return distance;
+        }
+
+        /**
+         * @return the last edge on the shortest path from the source to the vertex,
+         * or null if the vertex is the source
+         */
+        public E lastEdge() {
+            return lastEdge;
+        }
+    }
+
+    /**
+     * Representation Invariant:
+     * 1. discovered holds the vertices the search has reached, in the order it reached
+     * them, and index.get(discovered.get(i)) == i.
+     * <p>
+     * 2. For every i < discovered.size(), distance[i] is the length of the shortest path
+     * found so far to discovered.get(i) and lastEdge[i] is its last edge (null for the
+     * source). Settled vertices are final; the others are in frontier with priority distance[i].
+     */
+    private final Graph<V, E> owner;
+    private final int version;
+    private final Map<Vertex, Integer> index = new HashMap<>();
+    private final List<Vertex> discovered = new ArrayList<>();
+    private final int[] distance;
+    private final Edge<?>[] lastEdge;
+    private final BitSet settled;
+    private final PriorityQueue frontier;
+
+    /**
+     * Start a search from source, settling nothing yet.
+     * Precondition: source is a vertex of owner.
+     */
+    DijkstraIterator(Graph<V, E> owner, V source, PriorityQueue frontier) {
+        int n = owner.graph.allVertices().size();
+        this.owner = owner;
+        this.version = owner.version();
+        this.distance = new int[n];
+        this.lastEdge = new Edge<?>[n];
+        this.settled = new BitSet(n);
+        this.frontier = frontier;
+
+        index.put(source, 0);
+        discovered.add(source);
+        frontier.add(0, 0);
+    }
+
+    /**
+     * @return true iff there is a vertex reachable from the source that has not been settled yet
+     */
+    @Override
+    public boolean hasNext() {
+        return frontier.size() > 0;
+    }
+
+    /**
+     * Return the path length of the vertex next() would return, without settling it.
+     *
+     * @return the smallest path length among the vertices not settled yet
+     * @throws NoSuchElementException if every reachable vertex is settled
+     */
+    public int peekDistance() {
+        return distance[frontier.peek()];
+    }
+
+    /**
+     * Settle the closest vertex not settled yet.
+     *
+     * @return the vertex with its path length and last edge
+     * @throws NoSuchElementException if every reachable vertex is settled
+     * @throws ConcurrentModificationException if the graph changed since the search started
+     */
+    @Override
+    public Settled<V, E> next() {
+        if (owner.version() != version) {
+            throw new ConcurrentModificationException("the graph changed during the search");
+        }
+        int current = frontier.poll();
+        int currentLength = distance[current];
+        Vertex currentVertex = discovered.get(current);
+        settled.set(current);
+
+        for (Map.Entry<Vertex, Edge<Vertex>> neighbour: owner.graph.getNeighbours(currentVertex).entrySet()) {
+            Vertex vertex = neighbour.getKey();
+            Edge<Vertex> edge = neighbour.getValue();
+            int newLength = currentLength + edge.length();
+            Integer next = index.get(vertex);
+            if (next == null) {
+                next = discovered.size();
+                index.put(vertex, next);
+                discovered.add(vertex);
+                frontier.add(next, newLength);
+            } else if (!settled.get(next) && newLength < distance[next]) {
+                frontier.updatePriority(next, newLength);
+            } else {
+                continue;
+            }
+            distance[next] = newLength;
+            lastEdge[next] = edge;
+        }
+        return new Settled<>(Graph.release(currentVertex), currentLength, Graph.release(lastEdge[current]));
+    }
+
+    /**
+     * @return an ordered spliterator over the vertices this search has not settled yet;
+     * advancing it advances this search
+     */
+    public Spliterator<Settled<V, E>> spliterator() {
+        return Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL);
+    }
+
+    /**
+     * @return a sequential stream of the vertices this search has not settled yet,
+     * closest first; consuming it advances this search
+     */
+    public Stream<Settled<V, E>> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+}
@@ -2,11 +2,18 @@ package cpen221.mp2.graph;
 
 import java.util.NoSuchElementException;
 
+/**
+ * Represents a weighted undirected graph edge between two distinct vertices.
+ * <p>
+ * An edge never changes its end points or length, so an edge whose end points
+ * are both frozen is immutable: clone() returns it as is, and graphs share the
+ * stored instance instead of copying it.
+ */
 public class Edge<V extends Vertex> implements Cloneable {
 
-    private V v1;
-    private V v2;
-    private int length;
+    private final V v1;
+    private final V v2;
+    private final int length;
 
     public Edge(V v1, V v2) {
         this(v1, v2, 1);
@@ -29,6 +36,9 @@ public class Edge<V extends Vertex> implements Cloneable {
 
     @Override
     public Edge<V> clone() {
+        if (isFrozen()) {
+            return this;
+        }
         return new Edge(this.v1.clone(), this.v2.clone(), this.length);
     }
 
@@ -44,6 +54,13 @@ public class Edge<V extends Vertex> implements Cloneable {
         return length;
     }
 
+    /**
+     * @return true iff both end points of this edge are frozen
+     */
+    public boolean isFrozen() {
+        return v1.isFrozen() && v2.isFrozen();
+    }
+
     public boolean equals(Object o) {
         if (o instanceof Edge<?>) {
             Edge<?> other = (Edge<?>) o;
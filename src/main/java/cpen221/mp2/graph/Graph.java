@@ -1,34 +1,742 @@
 package cpen221.mp2.graph;
 
+import cpen221.mp2.util.BucketQueue;
+import cpen221.mp2.util.DaryHeap;
+import cpen221.mp2.util.DisjointSet;
+import cpen221.mp2.util.HeapQueue;
+import cpen221.mp2.util.PairingHeap;
+import cpen221.mp2.util.PriorityQueue;
+import cpen221.mp2.util.RadixHeap;
+
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
 
 /**
  * Represents a graph with vertices of type V.
+ * <p>
+ * allVertices, allEdges and getNeighbours return live read-only views of the
+ * vertices and edges, which reflect later changes to the graph. Like every other
+ * accessor, the views hand out frozen vertices, and edges between them, as they
+ * are stored, and copies of the rest, so that renaming a vertex a caller was
+ * handed cannot change the graph. The graph algorithms below work on the storage
+ * directly and copy nothing.
+ * <p>
+ * The vertices and edges are kept in adjacency lists, an adjacency matrix or
+ * frozen compressed sparse rows, as chosen with setStorageStrategy. The graph
+ * may move them from one to another when it is searched or mutated, so it must
+ * not be searched from several threads at once unless the strategy is fixed.
  *
  * @param <V> represents a vertex type
  */
 public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>, MGraph<V, E> {
-    ALGraph<Vertex, Edge<Vertex>> graph;
+    /* The current storage, of kind storage */
+    MGraph<Vertex, Edge<Vertex>> graph;
+    /* Incremented by every successful mutation, used to invalidate cached results */
+    private int version;
+    private boolean cacheDistances;
+    /* Number of worker threads used for the per-vertex searches of diameter and getCenter */
+    private int parallelism = 1;
+    private EccentricityStrategy eccentricityStrategy = EccentricityStrategy.ALL_SOURCES;
+    private PathStrategy pathStrategy = PathStrategy.SINGLE_SOURCE;
+    private QueueStrategy queueStrategy = QueueStrategy.BINARY_HEAP;
+    /* No edge of the graph is longer than this, used to size bucket queues */
+    private int longestEdge;
+    /* All-pairs shortest path table, null until it is first needed */
+    private DistanceCache distanceCache;
+    /* Shortest path trees of recently used sources, null unless turned on with cacheTrees */
+    private TreeCache treeCache;
+    private StorageStrategy storageStrategy = StorageStrategy.ADJACENCY_LIST;
+    /* The kind of the current storage, never ADAPTIVE */
+    private StorageStrategy storage = StorageStrategy.ADJACENCY_LIST;
+    /* Searches since the last mutation, used by ADAPTIVE to tell that mutation has stopped */
+    private int searchesSinceMutation;
+
+    /* ADAPTIVE keeps graphs of at most this many vertices in a matrix while they are dense */
+    private static final int MATRIX_VERTICES = 512;
+    /* ADAPTIVE freezes a graph once it has been searched this many times without a mutation */
+    private static final int QUIET_SEARCHES = 8;
 
     public Graph() {
-        this.graph = new ALGraph<>();
+        this.graph = new ALGraph<>(true);
+    }
+
+    /**
+     * Turn the all-pairs shortest path cache on or off. When it is on, the first
+     * search from a source is kept as a row of distances and predecessors, and
+     * later shortestPath, distance and eccentricity queries from that source are
+     * answered from the row. Any mutation of the graph discards every row.
+     *
+     * @param enabled true to keep shortest path results between queries
+     */
+    public void cacheDistances(boolean enabled) {
+        cacheDistances = enabled;
+        distanceCache = null;
+    }
+
+    /**
+     * Keep the shortest path trees of the most recently used sources. While a source's
+     * tree is kept, shortestPath, distance, shortestPathTree and getNeighbours from it
+     * are answered without a search, whatever the path strategy. Trees are dropped
+     * least recently used first once there are more than capacity of them or they
+     * take more than about memoryLimit bytes, and any mutation of the graph drops them
+     * all. The all-pairs cache of cacheDistances, when on, takes precedence.
+     *
+     * @param capacity the most trees to keep, 0 to turn the cache off
+     * @param memoryLimit the most heap the kept trees may take, in bytes
+     * @throws IllegalArgumentException if capacity or memoryLimit is negative
+     */
+    public void cacheTrees(int capacity, long memoryLimit) {
+        if (capacity < 0 || memoryLimit < 0) {
+            throw new IllegalArgumentException("capacity and memoryLimit cannot be negative");
+        }
+        treeCache = capacity == 0 ? null : new TreeCache(capacity, memoryLimit);
+    }
+
+    /**
+     * @return the number of searches the tree cache saved since it was last turned on
+     */
+    public long treeCacheHits() {
+        return treeCache == null ? 0 : treeCache.hits;
+    }
+
+    /**
+     * @return the number of trees computed for the tree cache since it was last turned on
+     */
+    public long treeCacheMisses() {
+        return treeCache == null ? 0 : treeCache.misses;
+    }
+
+    /**
+     * Set the number of worker threads that diameter() and getCenter() spread their
+     * per-vertex searches over. A parallelism of 1 runs every search on the calling
+     * thread. The results do not depend on the parallelism.
+     *
+     * @param parallelism the number of worker threads, parallelism >= 1
+     * @throws IllegalArgumentException if parallelism < 1
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * The ways diameter() and getCenter() can find the eccentricities they need.
+     */
+    public enum EccentricityStrategy {
+        /** Run one search from every vertex of the largest component. */
+        ALL_SOURCES,
+        /**
+         * Keep lower and upper bounds on every eccentricity and only search from
+         * vertices whose bounds could still change the answer (Takes and Kosters'
+         * bounding algorithm). The answer is exact, and usually needs far fewer searches.
+         */
+        BOUNDING
+    }
+
+    /**
+     * Choose how diameter() and getCenter() compute eccentricities.
+     * Both strategies give the same results.
+     *
+     * @param strategy the strategy to use, not null
+     */
+    public void setEccentricityStrategy(EccentricityStrategy strategy) {
+        if (strategy == null) {
+            throw new IllegalArgumentException("strategy cannot be null");
+        }
+        this.eccentricityStrategy = strategy;
+    }
+
+    /**
+     * The ways shortestPath(source, sink) can search for a path.
+     */
+    public enum PathStrategy {
+        /** Run Dijkstra's algorithm from source until every reachable vertex is settled. */
+        SINGLE_SOURCE,
+        /**
+         * Grow one search from source and one from sink, always extending the one
+         * with the smaller frontier, and stop as soon as no shorter meeting point is
+         * possible. Usually settles far fewer vertices for a single sink.
+         */
+        BIDIRECTIONAL
+    }
+
+    /**
+     * Choose how shortestPath(source, sink) searches when the distance cache is off.
+     * Both strategies give paths of the same length.
+     *
+     * @param strategy the strategy to use, not null
+     */
+    public void setPathStrategy(PathStrategy strategy) {
+        if (strategy == null) {
+            throw new IllegalArgumentException("strategy cannot be null");
+        }
+        this.pathStrategy = strategy;
+    }
+
+    /**
+     * The priority queues the searches can use for their frontier.
+     */
+    public enum QueueStrategy {
+        /** A binary heap, util.Heap. */
+        BINARY_HEAP,
+        /** A 4-ary heap, util.DaryHeap, which is shallower than a binary heap. */
+        FOUR_ARY_HEAP,
+        /** A pairing heap, util.PairingHeap, with constant time decrease-key. */
+        PAIRING_HEAP,
+        /** A radix heap, util.RadixHeap, with constant time decrease-key. */
+        RADIX_HEAP,
+        /**
+         * Dial's buckets, util.BucketQueue, with one bucket per path length up to
+         * the longest edge. Best when edges are short.
+         */
+        BUCKETS
+    }
+
+    /**
+     * Choose the priority queue behind every search of this graph: shortestPath with
+     * either path strategy or a heuristic, getNeighbours, distance and the
+     * eccentricity searches. All strategies give the same path lengths. RADIX_HEAP
+     * and BUCKETS need the heuristic given to shortestPath to be consistent.
+     *
+     * @param strategy the strategy to use, not null
+     */
+    public void setQueueStrategy(QueueStrategy strategy) {
+        if (strategy == null) {
+            throw new IllegalArgumentException("strategy cannot be null");
+        }
+        this.queueStrategy = strategy;
+    }
+
+    /**
+     * The ways the vertices and edges of the graph can be stored.
+     */
+    public enum StorageStrategy {
+        /** Adjacency lists, ALGraph. Cheap to mutate, with neighbours iterated in time proportional to degree. */
+        ADJACENCY_LIST,
+        /**
+         * An adjacency matrix, AMGraph. Edge tests take constant time, but the matrix
+         * takes space quadratic in the number of vertices and neighbours are found by
+         * scanning a whole row.
+         */
+        ADJACENCY_MATRIX,
+        /**
+         * Compressed sparse rows, CSRGraph: every row of neighbours in one pair of
+         * arrays, the most compact form to search. A mutation first thaws the graph
+         * into adjacency lists, and the next search freezes it again.
+         */
+        FROZEN,
+        /**
+         * Choose from the others before every search: an adjacency matrix for small
+         * dense graphs, compressed sparse rows once the graph has been searched
+         * several times without a mutation, and adjacency lists otherwise.
+         */
+        ADAPTIVE
+    }
+
+    /**
+     * Choose how the vertices and edges of this graph are stored. The choice does not
+     * change the results of any method, only their cost. The vertices and edges are
+     * moved to the new storage at once, except that ADAPTIVE waits for the next search.
+     *
+     * @param strategy the strategy to use, not null
+     */
+    public void setStorageStrategy(StorageStrategy strategy) {
+        if (strategy == null) {
+            throw new IllegalArgumentException("strategy cannot be null");
+        }
+        this.storageStrategy = strategy;
+        if (strategy != StorageStrategy.ADAPTIVE && strategy != storage) {
+            store(strategy);
+        }
+    }
+
+    /**
+     * @return the kind of storage the vertices and edges are in now, never ADAPTIVE
+     */
+    public StorageStrategy storage() {
+        return storage;
+    }
+
+    /**
+     * Take a read-only snapshot of this graph. Under FROZEN storage the snapshot
+     * is the frozen storage itself, so it costs nothing; otherwise a new CSRGraph
+     * is built. The snapshot holds the stored vertices and edges and does not
+     * see later changes to this graph. It hands out the stored instances, so
+     * callers must not rename its vertices; freezing the vertices rules that out.
+     *
+     * @return a CSRGraph with the vertices and edges of this graph
+     */
+    @SuppressWarnings("unchecked")
+    public CSRGraph<V, E> frozen() {
+        if (storage == StorageStrategy.FROZEN) {
+            return (CSRGraph<V, E>) (CSRGraph<?, ?>) ((FrozenStorage) graph).rows;
+        }
+        return new CSRGraph.CSRGraphBuilder<V, E>().graph((MGraph<V, E>) (MGraph<?, ?>) graph).build();
+    }
+
+    /**
+     * Move every vertex and edge to a new storage of the given kind.
+     *
+     * @param kind the kind of storage, not ADAPTIVE
+     */
+    private void store(StorageStrategy kind) {
+        MGraph<Vertex, Edge<Vertex>> store;
+        switch (kind) {
+            case FROZEN:
+                graph = new FrozenStorage(new CSRGraph.CSRGraphBuilder<Vertex, Edge<Vertex>>().graph(graph).build());
+                storage = kind;
+                return;
+            case ADJACENCY_MATRIX:
+                store = new AMGraph<>(Math.max(16, graph.allVertices().size()), true);
+                break;
+            default:
+                store = new ALGraph<>(true);
+        }
+        for (Vertex v: graph.allVertices()) {
+            store.addVertex(v);
+        }
+        for (Edge<Vertex> e: graph.allEdges()) {
+            store.addEdge(e);
+        }
+        graph = store;
+        storage = kind;
+    }
+
+    /**
+     * Get the storage ready for a search: count the search, and under ADAPTIVE
+     * or FROZEN move the vertices and edges to the storage that suits the graph now.
+     * Must be called by the public methods that search, before they start.
+     */
+    private void beforeSearch() {
+        if (searchesSinceMutation < Integer.MAX_VALUE) {
+            searchesSinceMutation++;
+        }
+        StorageStrategy kind = storageStrategy;
+        if (kind == StorageStrategy.ADAPTIVE) {
+            long n = graph.allVertices().size();
+            long m = graph.allEdges().size();
+            //a matrix is taken once a quarter of the vertex pairs are edges and left below an eighth
+            long threshold = storage == StorageStrategy.ADJACENCY_MATRIX ? n * n / 16 : n * n / 8;
+            if (n <= MATRIX_VERTICES && m >= threshold && m > 0) {
+                kind = StorageStrategy.ADJACENCY_MATRIX;
+            } else if (searchesSinceMutation >= QUIET_SEARCHES) {
+                kind = StorageStrategy.FROZEN;
+            } else {
+                kind = StorageStrategy.ADJACENCY_LIST;
+            }
+        }
+        if (kind != storage) {
+            store(kind);
+        }
+    }
+
+    /**
+     * Get the storage ready for a mutation: frozen storage is thawed into adjacency lists.
+     */
+    private void beforeMutation() {
+        if (storage == StorageStrategy.FROZEN) {
+            store(StorageStrategy.ADJACENCY_LIST);
+        }
+    }
+
+    /**
+     * @param capacity the number of vertices the queue must be able to hold
+     * @return an empty frontier queue of the chosen strategy for Dijkstra's algorithm
+     */
+    private PriorityQueue newQueue(int capacity) {
+        return newQueue(capacity, longestEdge);
+    }
+
+    /**
+     * @param capacity the number of vertices the queue must be able to hold
+     * @param spread the most the priorities in the queue can differ by at once
+     * @return an empty frontier queue of the chosen strategy
+     */
+    private PriorityQueue newQueue(int capacity, int spread) {
+        switch (queueStrategy) {
+            case FOUR_ARY_HEAP:
+                return new DaryHeap(capacity);
+            case PAIRING_HEAP:
+                return new PairingHeap(capacity);
+            case RADIX_HEAP:
+                return new RadixHeap(capacity);
+            case BUCKETS:
+                return new BucketQueue(capacity, spread);
+            default:
+                return new HeapQueue();
+        }
+    }
+
+    /**
+     * Return the number of a vertex in a search that numbers vertices in the
+     * order they are discovered, numbering it now if it is new.
+     * @param vertex the vertex to number
+     * @param index the numbers given so far
+     * @param discovered the vertices numbered so far, in order
+     * @return the number of vertex
+     */
+    private static int number(Vertex vertex, Map<Vertex, Integer> index, List<Vertex> discovered) {
+        Integer number = index.get(vertex);
+        if (number == null) {
+            number = discovered.size();
+            index.put(vertex, number);
+            discovered.add(vertex);
+        }
+        return number;
+    }
+
+    /**
+     * @return the distance cache for the current version of the graph
+     */
+    private DistanceCache distanceCache() {
+        if (distanceCache == null || distanceCache.version != version) {
+            distanceCache = new DistanceCache();
+        }
+        return distanceCache;
+    }
+
+    /**
+     * A lazily filled all-pairs shortest path table for one version of the graph.
+     * Vertices are numbered in the order allVertices returned them when the table
+     * was created, and row i is filled by the first search from vertex i.
+     * Unreachable entries are Integer.MAX_VALUE in distance and -1 in previous.
+     */
+    private class DistanceCache {
+        final int version;
+        final List<Vertex> vertices;
+        final Map<Vertex, Integer> index;
+        final int[][] distance;
+        final int[][] previous;
+
+        DistanceCache() {
+            this.version = Graph.this.version;
+            this.vertices = new ArrayList<>(graph.allVertices());
+            this.index = new HashMap<>();
+            for (Vertex v: vertices) {
+                index.put(v, index.size());
+            }
+            this.distance = new int[vertices.size()][];
+            this.previous = new int[vertices.size()][];
+        }
+
+        /**
+         * @param source a vertex of the graph
+         * @return the row index of source, after filling the row if needed
+         */
+        int row(Vertex source) {
+            int row = index.get(source);
+            if (distance[row] == null) {
+                int[] rowDistance = new int[vertices.size()];
+                int[] rowPrevious = new int[vertices.size()];
+                Arrays.fill(rowDistance, Integer.MAX_VALUE);
+                Arrays.fill(rowPrevious, -1);
+                ShortestPathTree<V, E> tree = dijkstra(source, Integer.MAX_VALUE);
+                for (int i = 0; i < tree.size(); i++) {
+                    int column = index.get(tree.vertexAt(i));
+                    rowDistance[column] = tree.distanceAt(i);
+                    rowPrevious[column] = i == 0 ? -1 : index.get(tree.vertexAt(tree.previousAt(i)));
+                }
+                distance[row] = rowDistance;
+                previous[row] = rowPrevious;
+            }
+            return row;
+        }
+    }
+
+    /**
+     * A bounded least recently used cache of shortest path trees keyed by source,
+     * for one version of the graph at a time.
+     */
+    private class TreeCache {
+        final int capacity;
+        final long memoryLimit;
+        /* Iterates from the least to the most recently used source */
+        final LinkedHashMap<Vertex, ShortestPathTree<V, E>> trees = new LinkedHashMap<>(16, 0.75f, true);
+        int version;
+        long bytes;
+        long hits;
+        long misses;
+
+        TreeCache(int capacity, long memoryLimit) {
+            this.capacity = capacity;
+            this.memoryLimit = memoryLimit;
+            this.version = Graph.this.version;
+        }
+
+        /**
+         * @param source a vertex of the graph
+         * @return the kept tree of source, or null if there is none
+         */
+        ShortestPathTree<V, E> get(Vertex source) {
+            if (version != Graph.this.version) {
+                trees.clear();
+                bytes = 0;
+                version = Graph.this.version;
+            }
+            ShortestPathTree<V, E> tree = trees.get(source);
+            if (tree != null) {
+                hits++;
+            }
+            return tree;
+        }
+
+        /**
+         * Keep a newly computed tree, dropping the least recently used trees until
+         * the cache is within its limits. A tree larger than the memory limit is not kept.
+         * Precondition: get(source) just returned null.
+         */
+        void put(Vertex source, ShortestPathTree<V, E> tree) {
+            misses++;
+            if (tree.footprint() > memoryLimit) {
+                return;
+            }
+            trees.put(source, tree);
+            bytes += tree.footprint();
+            Iterator<ShortestPathTree<V, E>> oldest = trees.values().iterator();
+            while (trees.size() > capacity || bytes > memoryLimit) {
+                bytes -= oldest.next().footprint();
+                oldest.remove();
+            }
+        }
     }
 
+    /**
+     * {@inheritDoc}
+     * If both ends are frozen, the edge returned is the instance that was added
+     * to this graph; otherwise it is a copy.
+     *
+     * @throws IllegalArgumentException if the edge does not exist.
+     */
     @Override
     public E getEdge(V v1, V v2) {
-        int length = edgeLength(v1, v2);
-        return (E) new Edge<>(v1, v2, length);
+        return release(graph.getEdge(v1, v2));
+    }
+
+    /**
+     * Hand a stored vertex to a caller: a frozen vertex as it is, any other as a
+     * copy, so that renaming the vertex returned cannot change the graph.
+     *
+     * @param v a vertex of the graph, or null
+     * @return v or a copy of it, null if v is null
+     */
+    @SuppressWarnings("unchecked")
+    static <V extends Vertex> V release(Vertex v) {
+        return v == null ? null : (V) v.clone();
     }
 
+    /**
+     * Hand a stored edge to a caller: an edge between frozen vertices as it is,
+     * any other as a copy.
+     *
+     * @param e an edge of the graph, or null
+     * @return e or a copy of it, null if e is null
+     */
+    @SuppressWarnings("unchecked")
+    static <E extends Edge<?>> E release(Edge<?> e) {
+        return e == null ? null : (E) e.clone();
+    }
+
+    /**
+     * View a stored vertex as a V without copying it. The storage only holds
+     * vertices added through this graph, and those are all V's.
+     *
+     * @param v a vertex of the graph, or null
+     * @return v itself
+     */
+    @SuppressWarnings("unchecked")
+    private V stored(Vertex v) {
+        return (V) v;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if sink cannot be reached from source
+     */
     @Override
     public List<V> shortestPath(V source, V sink) {
-        Map<Vertex, dijkstraInfo> pathTable = dijkstra(source);
+        beforeSearch();
+        if (cacheDistances) {
+            DistanceCache cache = distanceCache();
+            int row = cache.row(source);
+            List<V> reversedOrder = new ArrayList<>();
+            int current = cache.index.get(sink);
+            if (cache.distance[row][current] == Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(sink + " cannot be reached from " + source);
+            }
+            while (current != row) {
+                reversedOrder.add(release(cache.vertices.get(current)));
+                current = cache.previous[row][current];
+            }
+            reversedOrder.add(source);
+            Collections.reverse(reversedOrder);
+            return reversedOrder;
+        }
+
+        if (pathStrategy == PathStrategy.BIDIRECTIONAL && treeCache == null) {
+            return bidirectionalPath(source, sink);
+        }
+        return dijkstra(source).pathTo(sink);
+    }
+
+    /**
+     * Find a shortest path with two Dijkstra searches, one from source and one
+     * from sink. Every time a vertex gets a new path length from one search and has
+     * one from the other, the two half-paths form a candidate. The searches stop once
+     * the smallest lengths left in the two frontiers add up to at least the best
+     * candidate, because any path through unsettled vertices would be longer.
+     *
+     * @param source the start vertex
+     * @param sink the end vertex
+     * @return the vertices, in order, on a shortest path from source to sink
+     * @throws IllegalArgumentException if sink cannot be reached from source
+     */
+    private List<V> bidirectionalPath(V source, V sink) {
+        //both searches share one numbering of the vertices they discover
+        Map<Vertex, dijkstraInfo> forward = new HashMap<>();
+        Map<Vertex, dijkstraInfo> backward = new HashMap<>();
+        Map<Vertex, Integer> index = new HashMap<>();
+        List<Vertex> discovered = new ArrayList<>();
+        int capacity = graph.allVertices().size();
+        PriorityQueue forwardFrontier = newQueue(capacity);
+        PriorityQueue backwardFrontier = newQueue(capacity);
+        forward.put(source, new dijkstraInfo(null, null, 0));
+        backward.put(sink, new dijkstraInfo(null, null, 0));
+        forwardFrontier.add(number(source, index, discovered), 0);
+        backwardFrontier.add(number(sink, index, discovered), 0);
+
+        Vertex meeting = source.equals(sink) ? source : null;
+        int best = meeting == null ? Integer.MAX_VALUE : 0;
+
+        while (forwardFrontier.size() > 0 && backwardFrontier.size() > 0) {
+            int forwardTop = forward.get(discovered.get(forwardFrontier.peek())).pathLength;
+            int backwardTop = backward.get(discovered.get(backwardFrontier.peek())).pathLength;
+            if ((long) forwardTop + backwardTop >= best) {
+                break;
+            }
+
+            //extend the search with fewer open vertices
+            boolean fromSource = forwardFrontier.size() <= backwardFrontier.size();
+            Map<Vertex, dijkstraInfo> table = fromSource ? forward : backward;
+            Map<Vertex, dijkstraInfo> other = fromSource ? backward : forward;
+            PriorityQueue frontier = fromSource ? forwardFrontier : backwardFrontier;
 
+            Vertex currentVertex = discovered.get(frontier.poll());
+            int currentLength = table.get(currentVertex).pathLength;
+            for (Map.Entry<Vertex, Edge<Vertex>> neighbour: graph.getNeighbours(currentVertex).entrySet()) {
+                Vertex vertex = neighbour.getKey();
+                Edge<Vertex> edge = neighbour.getValue();
+                int newLength = currentLength + edge.length();
+                dijkstraInfo info = table.get(vertex);
+                if (info == null) {
+                    info = new dijkstraInfo(currentVertex, edge, newLength);
+                    table.put(vertex, info);
+                    frontier.add(number(vertex, index, discovered), newLength);
+                } else if (newLength < info.pathLength) {
+                    //settled vertices never improve, so vertex is still in the frontier
+                    info.prevVertex = currentVertex;
+                    info.lastEdge = edge;
+                    info.pathLength = newLength;
+                    frontier.updatePriority(index.get(vertex), newLength);
+                } else {
+                    continue;
+                }
+
+                dijkstraInfo otherInfo = other.get(vertex);
+                if (otherInfo != null && newLength + otherInfo.pathLength < best) {
+                    best = newLength + otherInfo.pathLength;
+                    meeting = vertex;
+                }
+            }
+        }
+        if (meeting == null) {
+            throw new IllegalArgumentException(sink + " cannot be reached from " + source);
+        }
+
+        List<V> path = pathTo(forward, source, stored(meeting));
+        Vertex currentVertex = meeting;
+        while (!currentVertex.equals(sink)) {
+            currentVertex = backward.get(currentVertex).prevVertex;
+            path.add(release(currentVertex));
+        }
+        return path;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if sink cannot be reached from source
+     */
+    @Override
+    public List<V> shortestPath(V source, V sink, ToIntFunction<? super V> heuristic) {
+        beforeSearch();
+        //A* search, the frontier is keyed on path length plus the heuristic estimate.
+        //With a consistent heuristic those keys grow by at most twice the longest
+        //edge from one vertex to the next, so monotone queues can hold them
+        Map<Vertex, dijkstraInfo> table = new HashMap<>();
+        Set<Vertex> settled = new HashSet<>();
+        Map<Vertex, Integer> index = new HashMap<>();
+        List<Vertex> discovered = new ArrayList<>();
+        int spread = (int) Math.min(2L * longestEdge, Integer.MAX_VALUE - 1);
+        PriorityQueue frontier = newQueue(graph.allVertices().size(), spread);
+
+        table.put(source, new dijkstraInfo(null, null, 0));
+        frontier.add(number(source, index, discovered), heuristic.applyAsInt(source));
+
+        boolean reached = false;
+        while (frontier.size() > 0) {
+            Vertex currentVertex = discovered.get(frontier.poll());
+            if (currentVertex.equals(sink)) {
+                reached = true;
+                break;
+            }
+            settled.add(currentVertex);
+            int currentLength = table.get(currentVertex).pathLength;
+
+            for (Map.Entry<Vertex, Edge<Vertex>> neighbour: graph.getNeighbours(currentVertex).entrySet()) {
+                Vertex vertex = neighbour.getKey();
+                if (settled.contains(vertex)) {
+                    continue;
+                }
+                Edge<Vertex> edge = neighbour.getValue();
+                int newLength = currentLength + edge.length();
+                dijkstraInfo info = table.get(vertex);
+                if (info == null) {
+                    table.put(vertex, new dijkstraInfo(currentVertex, edge, newLength));
+                    frontier.add(number(vertex, index, discovered), newLength + heuristic.applyAsInt(stored(vertex)));
+                } else if (newLength < info.pathLength) {
+                    info.prevVertex = currentVertex;
+                    info.lastEdge = edge;
+                    info.pathLength = newLength;
+                    frontier.updatePriority(index.get(vertex), newLength + heuristic.applyAsInt(stored(vertex)));
+                }
+            }
+        }
+        if (!reached) {
+            throw new IllegalArgumentException(sink + " cannot be reached from " + source);
+        }
+        return pathTo(table, source, sink);
+    }
+
+    /**
+     * Follow the predecessors recorded by a search back from sink to source
+     * @param table the result of a search from source that reached sink
+     * @param source the start vertex of the search
+     * @param sink the end vertex of the path
+     * @return the vertices, in order, on the path from source to sink
+     */
+    private List<V> pathTo(Map<Vertex, dijkstraInfo> table, V source, V sink) {
         List<V> reversedOrder = new ArrayList<>();
         Vertex currentVertex = sink;
         while (!currentVertex.equals(source)) {
-            reversedOrder.add((V) currentVertex);
-            currentVertex = pathTable.get(currentVertex).prevVertex;
+            reversedOrder.add(release(currentVertex));
+            currentVertex = table.get(currentVertex).prevVertex;
         }
         reversedOrder.add(source);
         Collections.reverse(reversedOrder);
@@ -36,60 +744,162 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
         return reversedOrder;
     }
 
+    /**
+     * Compute the length of the shortest path between two vertices.
+     * With the distance cache on, repeated queries from a source take constant time.
+     *
+     * @param source the start vertex
+     * @param sink the end vertex
+     * @return the length of the shortest path from source to sink,
+     * or Integer.MAX_VALUE if sink cannot be reached from source
+     */
+    public int distance(V source, V sink) {
+        beforeSearch();
+        if (cacheDistances) {
+            DistanceCache cache = distanceCache();
+            return cache.distance[cache.row(source)][cache.index.get(sink)];
+        }
+        return dijkstra(source).distanceTo(sink);
+    }
+
+    /**
+     * Run Dijkstra's algorithm from a source and keep the whole result, so that
+     * paths and distances to any number of sinks are answered without searching again.
+     *
+     * @param source the start vertex, must be in the graph
+     * @return the shortest path tree of every vertex reachable from source
+     */
+    public ShortestPathTree<V, E> shortestPathTree(V source) {
+        beforeSearch();
+        return dijkstra(source);
+    }
+
+    /**
+     * Start a lazy search from source that settles one vertex per call to next(),
+     * closest first, using the chosen queue strategy. Callers that only need the
+     * nearest few vertices can stop early and resume later.
+     *
+     * @param source the start vertex
+     * @return a search from source that has not settled any vertex yet
+     * @throws IllegalArgumentException if source is not in the graph
+     */
+    public DijkstraIterator<V, E> closestFirst(V source) {
+        if (!vertex(source)) {
+            throw new IllegalArgumentException(source + " is not in the graph");
+        }
+        beforeSearch();
+        return new DijkstraIterator<>(this, source, newQueue(graph.allVertices().size()));
+    }
+
+    /**
+     * Find the k vertices closest to source that satisfy a filter. The search stops
+     * as soon as the k-th match is settled, so nearby matches are found without
+     * visiting the rest of the graph.
+     *
+     * @param source the start vertex, which is never part of the result
+     * @param k the number of vertices wanted, k >= 0
+     * @param filter the test a vertex must pass to be counted
+     * @return up to k vertices other than source that pass filter, closest first;
+     * fewer than k if fewer are reachable from source
+     * @throws IllegalArgumentException if k < 0 or source is not in the graph
+     */
+    public List<V> nearest(V source, int k, Predicate<? super V> filter) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k cannot be negative");
+        }
+        List<V> nearest = new ArrayList<>();
+        DijkstraIterator<V, E> search = closestFirst(source);
+        search.next();
+        while (nearest.size() < k && search.hasNext()) {
+            V vertex = search.next().vertex();
+            if (filter.test(vertex)) {
+                nearest.add(vertex);
+            }
+        }
+        return nearest;
+    }
+
     /**
      * Use Dijkstra's algorithm to compute the shortest path
      * length from a source to all other vertices
      * @param source starting vertex, must exist
-     * @return a map mapping each vertex in the graph to its dijkstraInfo
+     * @return the shortest path tree of every vertex reachable from source
      */
-    private Map<Vertex, dijkstraInfo> dijkstra(Vertex source) {
-        //dijkstra's algorithm
-        Set<Vertex> allVertices = (Set<Vertex>) allVertices();
-        List<Vertex> unvisited = new ArrayList<>();
+    private ShortestPathTree<V, E> dijkstra(Vertex source) {
+        if (treeCache == null) {
+            return dijkstra(source, Integer.MAX_VALUE);
+        }
+        ShortestPathTree<V, E> tree = treeCache.get(source);
+        if (tree == null) {
+            tree = dijkstra(source, Integer.MAX_VALUE);
+            treeCache.put(source, tree);
+        }
+        return tree;
+    }
 
-        Map<Vertex, dijkstraInfo> table = new HashMap<>();
+    /**
+     * Use Dijkstra's algorithm to compute the shortest path length from a source
+     * to every vertex no further than limit from it. The search stops as soon as
+     * the closest vertex left on the frontier is further than limit.
+     * @param source starting vertex, must exist
+     * @param limit the largest path length of interest, limit >= 0
+     * @return a tree of each vertex discovered by the search,
+     * every vertex within limit of source is in the tree with its final path length
+     */
+    @SuppressWarnings("unchecked")
+    private ShortestPathTree<V, E> dijkstra(Vertex source, int limit) {
+        //dijkstra's algorithm, vertices are numbered in the order they are
+        //discovered and the frontier is a min-queue of those numbers
+        int n = graph.allVertices().size();
+        Map<Vertex, Integer> index = new HashMap<>();
+        List<Vertex> discovered = new ArrayList<>();
+        int[] distance = new int[n];
+        int[] previous = new int[n];
+        Edge<?>[] lastEdge = new Edge<?>[n];
+        BitSet visited = new BitSet(n);
+        PriorityQueue frontier = newQueue(n);
 
-        for (Vertex v: allVertices) {
-            unvisited.add(v);
-            if (v.equals(source)) {
-                table.put(v, new dijkstraInfo(null, 0));
-            } else {
-                table.put(v, new dijkstraInfo(null, Integer.MAX_VALUE));
+        number(source, index, discovered);
+        previous[0] = -1;
+        frontier.add(0, 0);
+
+        while (frontier.size() > 0) {
+            int current = frontier.poll();
+            int currentLength = distance[current];
+            if (currentLength > limit) {
+                break;
             }
-        }
+            visited.set(current);
 
-        Vertex currentVertex = source;
-        while (!unvisited.isEmpty()) {
-            Map<Vertex, Edge<Vertex>> neighbours = graph.getNeighbours(currentVertex);
-            for (Vertex vertex: neighbours.keySet()) {
-                if (!unvisited.contains(vertex)) {
+            for (Map.Entry<Vertex, Edge<Vertex>> neighbour: graph.getNeighbours(discovered.get(current)).entrySet()) {
+                Vertex vertex = neighbour.getKey();
+                Edge<Vertex> edge = neighbour.getValue();
+                int newLength = currentLength + edge.length();
+                Integer next = index.get(vertex);
+                if (next == null) {
+                    next = number(vertex, index, discovered);
+                    frontier.add(next, newLength);
+                } else if (!visited.get(next) && newLength < distance[next]) {
+                    frontier.updatePriority(next, newLength);
+                } else {
                     continue;
                 }
-                int currentDistance = neighbours.get(vertex).length();
-                if (currentDistance + table.get(currentVertex).pathLength < table.get(vertex).pathLength) {
-                    table.get(vertex).pathLength = currentDistance + table.get(currentVertex).pathLength;
-                    table.get(vertex).prevVertex = currentVertex;
-                }
-            }
-            unvisited.remove(currentVertex);
-            Vertex leastDistanceVertex = null;
-            int leastDistance = Integer.MAX_VALUE;
-            for (Vertex vertex: unvisited) {
-                if (table.get(vertex).pathLength < leastDistance) {
-                    leastDistance = table.get(vertex).pathLength;
-                    leastDistanceVertex = vertex;
-                }
+                distance[next] = newLength;
+                previous[next] = current;
+                lastEdge[next] = edge;
             }
-            currentVertex = leastDistanceVertex;
         }
-        return table;
+        return new ShortestPathTree<>((List<V>) (List<?>) discovered, (Map<V, Integer>) (Map<?, ?>) index,
+                distance, previous, (E[]) lastEdge);
     }
 
     class dijkstraInfo {
         Vertex prevVertex;
+        Edge<Vertex> lastEdge;
         int pathLength;
-        public dijkstraInfo (Vertex prevVertex, int pathLength) {
+        public dijkstraInfo (Vertex prevVertex, Edge<Vertex> lastEdge, int pathLength) {
             this.prevVertex = prevVertex;
+            this.lastEdge = lastEdge;
             this.pathLength = pathLength;
         }
     }
@@ -99,19 +909,56 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
         int sum = 0;
         //don't iterate onto the last item
         for (int i = 0; i < path.size() - 1; i++) {
-            sum += getEdge(path.get(i), path.get(i+1)).length();
+            sum += graph.edgeLength(path.get(i), path.get(i+1));
+        }
+        return sum;
+    }
+
+    /**
+     * Compute the length of a path given by the ids of its vertices, for callers
+     * that already work with ids. Nothing is allocated.
+     *
+     * @param ids the ids of the vertices on the path, in order;
+     *            consecutive vertices must be connected
+     * @return the length of the path
+     * @throws IllegalArgumentException if an id is not in the graph or two
+     *                                  consecutive vertices are not connected
+     */
+    public int pathLength(int[] ids) {
+        int sum = 0;
+        Vertex current = ids.length == 0 ? null : requireVertex(ids[0]);
+        for (int i = 1; i < ids.length; i++) {
+            Vertex next = requireVertex(ids[i]);
+            sum += graph.edgeLength(current, next);
+            current = next;
         }
         return sum;
     }
 
+    /**
+     * @param id the id of a vertex
+     * @return the vertex with that id
+     * @throws IllegalArgumentException if there is no vertex with that id
+     */
+    private Vertex requireVertex(int id) {
+        Vertex vertex = graph.vertexById(id);
+        if (vertex == null) {
+            throw new IllegalArgumentException("No vertex with id " + id);
+        }
+        return vertex;
+    }
+
     @Override
     public Map<V, E> getNeighbours(V v, int range) {
+        beforeSearch();
         Map<V, E> neighbours = new HashMap<>();
-        for (Vertex vertex: allVertices()) {
-            List<V> shortestPath = shortestPath(v, (V) vertex);
-            if (pathLength(shortestPath) <= range && !vertex.equals(v)) {
-                neighbours.put((V) vertex,
-                        getEdge(shortestPath.get(shortestPath.size() - 2), shortestPath.get(shortestPath.size() - 1)));
+        ShortestPathTree<V, E> tree = treeCache == null ? null : treeCache.get(v);
+        if (tree == null) {
+            tree = dijkstra(v, range);
+        }
+        for (int i = 1; i < tree.size(); i++) {
+            if (tree.distanceAt(i) <= range) {
+                neighbours.put(release(tree.vertexAt(i)), release(tree.lastEdgeAt(i)));
             }
         }
         return neighbours;
@@ -119,34 +966,38 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
 
     @Override
     public Set<ImGraph<V, E>> minimumSpanningComponents(int k) {
-        //use kruskal's algorithm
-        List<Edge> edgeList = new ArrayList<>(allEdges());
-        edgeList.sort(Comparator.comparingInt(Edge::length));
-
-        Set<ImGraph<V, E>> graphSet = new HashSet<>();
-
-        int numVertices = 0;
-        Graph<V, E> curGraph = new Graph<>();
-        for (Vertex vertex: allVertices()) {
-            curGraph.addVertex((V) vertex);
-            numVertices++;
+        //use kruskal's algorithm, components are tracked in a disjoint-set forest
+        List<V> vertices = new ArrayList<>(allVertices());
+        Map<Vertex, Integer> index = new HashMap<>();
+        for (V vertex: vertices) {
+            index.put(vertex, index.size());
         }
 
-        int numEdges = 0;
-        for (Edge edge: edgeList) {
-            curGraph.addEdge((E) edge);
-            numEdges++;
-            if (curGraph.hasCycle(edge.v1())) {
-                curGraph.remove((E) edge);
-                numEdges--;
-            }
-            graphSet = connectedComponents(curGraph);
-            if ((numEdges == numVertices - 1) || (connectedComponents(curGraph).size() == k)) {
+        List<E> edgeList = new ArrayList<>(allEdges());
+        edgeList.sort(Comparator.comparingInt(Edge::length));
+
+        DisjointSet components = new DisjointSet(vertices.size());
+        List<E> forest = new ArrayList<>();
+        for (E edge: edgeList) {
+            if (components.count() <= k) {
                 break;
             }
+            if (components.union(index.get(edge.v1()), index.get(edge.v2()))) {
+                forest.add(edge);
+            }
         }
 
-        return graphSet;
+        //build each component graph once the forest is final
+        Map<Integer, Graph<V, E>> componentGraphs = new HashMap<>();
+        for (int i = 0; i < vertices.size(); i++) {
+            componentGraphs.computeIfAbsent(components.find(i), root -> new Graph<>())
+                    .addVertex(vertices.get(i));
+        }
+        for (E edge: forest) {
+            componentGraphs.get(components.find(index.get(edge.v1()))).addEdge(edge);
+        }
+
+        return new HashSet<>(componentGraphs.values());
     }
 
     /**
@@ -218,24 +1069,28 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
     }
 
     /**
-     * Helper function for recursion in connectedComponents
-     * @param v current vertex being visited
+     * Helper function for connectedComponents, walks the component of v depth-first
+     * @param v the first vertex of the component to visit
      * @param visited map of vertices already visited
      * @param connected subgraph being appended to
      * @param original original graph
      * @return connected subgraph in original
      */
     private Graph<V, E> connectedUtil(Vertex v, Map<Vertex, Boolean> visited, Graph<V, E> connected, Graph<V, E> original) {
+        Deque<Vertex> stack = new ArrayDeque<>();
         visited.put(v, true);
         connected.addVertex((V) v);
-        for (Vertex vertex: original.getNeighbours((V) v).keySet()) {
-            connected.addVertex((V) vertex);
-            connected.addEdge(original.getNeighbours((V) v).get(vertex));
-        }
-
-        for (Vertex vertex: original.getNeighbours((V) v).keySet()) {
-            if (!visited.get(vertex)) {
-                connectedUtil(vertex, visited, connected, original);
+        stack.push(v);
+        while (!stack.isEmpty()) {
+            Vertex current = stack.pop();
+            Map<V, E> neighbours = original.getNeighbours(stored(current));
+            for (V vertex: neighbours.keySet()) {
+                connected.addVertex(vertex);
+                connected.addEdge(neighbours.get(vertex));
+                if (!visited.get(vertex)) {
+                    visited.put(vertex, true);
+                    stack.push(vertex);
+                }
             }
         }
         return connected;
@@ -248,41 +1103,234 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
      */
     private int eccentricity(Vertex vertex) {
         int eccentricity = 0;
-        Map<Vertex, dijkstraInfo> table = dijkstra(vertex);
-        for (dijkstraInfo info: table.values()) {
-            eccentricity = Math.max(info.pathLength, eccentricity);
+        if (cacheDistances) {
+            DistanceCache cache = distanceCache();
+            for (int distance: cache.distance[cache.row(vertex)]) {
+                if (distance != Integer.MAX_VALUE) {
+                    eccentricity = Math.max(distance, eccentricity);
+                }
+            }
+            return eccentricity;
+        }
+        //searches from every vertex would only flush the tree cache, so bypass it
+        ShortestPathTree<V, E> tree = dijkstra(vertex, Integer.MAX_VALUE);
+        for (int i = 0; i < tree.size(); i++) {
+            eccentricity = Math.max(tree.distanceAt(i), eccentricity);
+        }
+        return eccentricity;
+    }
+
+    /**
+     * Computes the eccentricity of every vertex in a list. When parallelism > 1
+     * the searches run on a fork-join pool of that many workers, each reusing
+     * its own distance array and settled set across searches.
+     * @param sources the vertices to compute eccentricity for
+     * @return an array whose entry i is the eccentricity of sources.get(i)
+     */
+    private int[] eccentricities(List<Vertex> sources) {
+        int[] eccentricities = new int[sources.size()];
+        if (parallelism == 1 || sources.size() < 2) {
+            for (int i = 0; i < sources.size(); i++) {
+                eccentricities[i] = eccentricity(sources.get(i));
+            }
+            return eccentricities;
+        }
+
+        Map<Vertex, Integer> index = new HashMap<>();
+        List<Vertex> vertices = new ArrayList<>();
+        if (cacheDistances) {
+            //create the cache before the workers start filling its rows
+            index = distanceCache().index;
+        } else {
+            for (Vertex v: graph.allVertices()) {
+                number(v, index, vertices);
+            }
+        }
+        Map<Vertex, Integer> vertexIndex = index;
+        ThreadLocal<int[]> distances = ThreadLocal.withInitial(() -> new int[vertexIndex.size()]);
+        ThreadLocal<BitSet> settled = ThreadLocal.withInitial(() -> new BitSet(vertexIndex.size()));
+        ThreadLocal<PriorityQueue> frontiers = ThreadLocal.withInitial(() -> newQueue(vertexIndex.size()));
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> IntStream.range(0, sources.size()).parallel().forEach(i -> {
+                if (cacheDistances) {
+                    eccentricities[i] = eccentricity(sources.get(i));
+                } else {
+                    eccentricities[i] = eccentricity(sources.get(i), vertexIndex, vertices,
+                            distances.get(), settled.get(), frontiers.get());
+                }
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while computing eccentricities", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        return eccentricities;
+    }
+
+    /**
+     * Computes the eccentricity of a vertex using caller-supplied scratch space,
+     * so that one worker thread can run many searches without allocating tables.
+     * @param source the vertex to compute eccentricity for
+     * @param index a dense numbering of every vertex in the graph
+     * @param vertices every vertex in the graph, in the order of index
+     * @param distance scratch array with one entry per vertex, overwritten
+     * @param settled scratch set of vertex indices, overwritten
+     * @param frontier empty scratch queue for every vertex index, left empty
+     * @return the eccentricity of source
+     */
+    private int eccentricity(Vertex source, Map<Vertex, Integer> index, List<Vertex> vertices,
+                             int[] distance, BitSet settled, PriorityQueue frontier) {
+        Arrays.fill(distance, Integer.MAX_VALUE);
+        settled.clear();
+        distance[index.get(source)] = 0;
+        frontier.add(index.get(source), 0);
+
+        int eccentricity = 0;
+        while (frontier.size() > 0) {
+            int current = frontier.poll();
+            Vertex currentVertex = vertices.get(current);
+            settled.set(current);
+            eccentricity = distance[current];
+
+            for (Map.Entry<Vertex, Edge<Vertex>> neighbour: graph.getNeighbours(currentVertex).entrySet()) {
+                int next = index.get(neighbour.getKey());
+                if (settled.get(next)) {
+                    continue;
+                }
+                int newLength = distance[current] + neighbour.getValue().length();
+                if (newLength < distance[next]) {
+                    boolean inFrontier = distance[next] != Integer.MAX_VALUE;
+                    distance[next] = newLength;
+                    if (inFrontier) {
+                        frontier.updatePriority(next, newLength);
+                    } else {
+                        frontier.add(next, newLength);
+                    }
+                }
+            }
         }
         return eccentricity;
     }
 
     @Override
     public int diameter() {
+        beforeSearch();
         Graph<V, E> biggestGraph = getBiggestSubgraph();
+        List<Vertex> vertices = new ArrayList<>(biggestGraph.allVertices());
+        if (eccentricityStrategy == EccentricityStrategy.BOUNDING) {
+            return biggestGraph.boundingSearch(vertices, true);
+        }
 
         int diameter = 0;
-        for (Vertex vertex: biggestGraph.allVertices()) {
-            diameter = Math.max(biggestGraph.eccentricity(vertex), diameter); //TODO: do this math.max thing more often
+        for (int eccentricity: biggestGraph.eccentricities(vertices)) {
+            diameter = Math.max(eccentricity, diameter);
         }
         return diameter;
     }
 
     @Override
     public V getCenter() {
+        beforeSearch();
         Graph<V, E> biggestGraph = getBiggestSubgraph();
+        List<Vertex> vertices = new ArrayList<>(biggestGraph.allVertices());
+        if (eccentricityStrategy == EccentricityStrategy.BOUNDING) {
+            int center = biggestGraph.boundingSearch(vertices, false);
+            return center < 0 ? null : stored(vertices.get(center));
+        }
+        int[] eccentricities = biggestGraph.eccentricities(vertices);
 
         int minEccentricity = Integer.MAX_VALUE;
         V bestGirl = null;
-        for (Vertex vertex: biggestGraph.allVertices()) {
-            if (biggestGraph.eccentricity(vertex) < minEccentricity) {
-                minEccentricity = biggestGraph.eccentricity(vertex);
-                bestGirl = (V) vertex;
+        for (int i = 0; i < vertices.size(); i++) {
+            if (eccentricities[i] < minEccentricity) {
+                minEccentricity = eccentricities[i];
+                bestGirl = stored(vertices.get(i));
             }
         }
         return bestGirl;
     }
 
     /**
-     * @return The biggest connected subgraph within the graph
+     * Find the diameter or the center of a connected graph by bounding eccentricities.
+     * <p>
+     * After a search from v, every vertex w satisfies
+     * max(d(v, w), ecc(v) - d(v, w)) <= ecc(w) <= ecc(v) + d(v, w).
+     * A vertex stays a candidate only while its bounds could still change the
+     * answer, and each round searches from the candidate with the smallest lower
+     * bound or the one with the largest upper bound, alternately.
+     * </p>
+     * @param vertices every vertex of this graph, which must be connected
+     * @param diameter true to find the diameter, false to find the center
+     * @return the diameter, or the position in vertices of the first vertex with
+     * minimum eccentricity (-1 if there are no vertices)
+     */
+    private int boundingSearch(List<Vertex> vertices, boolean diameter) {
+        int n = vertices.size();
+        if (n == 0) {
+            return diameter ? 0 : -1;
+        }
+        Map<Vertex, Integer> index = new HashMap<>();
+        for (Vertex v: vertices) {
+            index.put(v, index.size());
+        }
+        int[] lower = new int[n];
+        long[] upper = new long[n];
+        Arrays.fill(upper, Long.MAX_VALUE);
+        int[] distance = new int[n];
+        BitSet settled = new BitSet(n);
+        PriorityQueue frontier = newQueue(n);
+        BitSet candidates = new BitSet(n);
+        candidates.set(0, n);
+
+        int maxLower = 0;             // lower bound on the diameter
+        int center = -1;              // first vertex known to have the smallest exact eccentricity
+        boolean pickSmallest = true;
+        while (!candidates.isEmpty()) {
+            int v = -1;
+            for (int w = candidates.nextSetBit(0); w >= 0; w = candidates.nextSetBit(w + 1)) {
+                if (v < 0 || (pickSmallest ? lower[w] < lower[v] : upper[w] > upper[v])) {
+                    v = w;
+                }
+            }
+            pickSmallest = !pickSmallest;
+
+            int eccentricity = eccentricity(vertices.get(v), index, vertices, distance, settled, frontier);
+            for (int w = 0; w < n; w++) {
+                lower[w] = Math.max(lower[w], Math.max(distance[w], eccentricity - distance[w]));
+                upper[w] = Math.min(upper[w], (long) eccentricity + distance[w]);
+                maxLower = Math.max(maxLower, lower[w]);
+                if (lower[w] == upper[w] && (center < 0 || lower[w] < lower[center]
+                        || (lower[w] == lower[center] && w < center))) {
+                    center = w;
+                }
+            }
+
+            for (int w = candidates.nextSetBit(0); w >= 0; w = candidates.nextSetBit(w + 1)) {
+                boolean needed;
+                if (diameter) {
+                    needed = upper[w] > maxLower;
+                } else {
+                    needed = lower[w] < lower[center] || (lower[w] == lower[center] && w < center);
+                }
+                if (lower[w] == upper[w] || !needed) {
+                    candidates.clear(w);
+                }
+            }
+        }
+        return diameter ? maxLower : center;
+    }
+
+    /**
+     * @return The biggest connected subgraph within the graph,
+     * which is this graph itself when it is connected
      */
     private Graph<V, E> getBiggestSubgraph() {
         Graph<V, E> biggestGraph = this;
@@ -295,12 +1343,31 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
                 biggestSize = curSize;
             }
         }
+        if (biggestSize == allVertices().size()) {
+            return this;
+        }
+        biggestGraph.cacheDistances(cacheDistances);
+        biggestGraph.setParallelism(parallelism);
+        biggestGraph.setQueueStrategy(queueStrategy);
+        biggestGraph.setStorageStrategy(storageStrategy);
+        biggestGraph.beforeSearch();
         return biggestGraph;
     }
 
     @Override
     public boolean addVertex(V v) {
-        return graph.addVertex(v);
+        beforeMutation();
+        return changed(graph.addVertex(v));
+    }
+
+    /**
+     * Find the vertex with a given id in constant expected time.
+     *
+     * @param id the id of the vertex of interest
+     * @return the vertex with that id, or null if there is no such vertex
+     */
+    public V vertexById(int id) {
+        return release(graph.vertexById(id));
     }
 
     @Override
@@ -310,7 +1377,12 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
 
     @Override
     public boolean addEdge(E e) {
-        return graph.addEdge((Edge) e);
+        beforeMutation();
+        if (!changed(graph.addEdge((Edge) e))) {
+            return false;
+        }
+        longestEdge = Math.max(longestEdge, e.length());
+        return true;
     }
 
     @Override
@@ -335,32 +1407,292 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
 
     @Override
     public boolean remove(E e) {
-        return graph.remove((Edge) e);
+        beforeMutation();
+        return changed(graph.remove((Edge) e));
     }
 
     @Override
     public boolean remove(V v) {
-        return graph.remove(v);
+        beforeMutation();
+        return changed(graph.remove(v));
+    }
+
+    /**
+     * @return the number of successful mutations of this graph so far
+     */
+    int version() {
+        return version;
+    }
+
+    /**
+     * Record the outcome of a mutation, bumping the version if the graph changed.
+     *
+     * @param mutated true if the graph was changed
+     * @return mutated
+     */
+    private boolean changed(boolean mutated) {
+        if (mutated) {
+            version++;
+            searchesSinceMutation = 0;
+        }
+        return mutated;
     }
 
     @Override
     public Set<V> allVertices() {
-        return (Set<V>) graph.allVertices();
+        return new VertexView();
     }
 
     @Override
     public Set<E> allEdges(V v) {
-        return (Set<E>) graph.allEdges(v);
+        return new IncidentEdgeView(v);
     }
 
     @Override
     public Set<E> allEdges() {
-        return (Set<E>) graph.allEdges();
+        return new EdgeView();
     }
 
     @Override
     public Map<V, E> getNeighbours(V v) {
-        return (Map<V, E>) graph.getNeighbours(v);
+        return new NeighbourView(v);
+    }
+
+    /*
+     * The views below ask the current storage for every answer, so they stay live
+     * when the vertices and edges move to another storage.
+     */
+
+    /**
+     * @param stored an iterator over stored edges
+     * @return an iterator that hands out the edges of stored with release
+     */
+    private Iterator<E> released(Iterator<Edge<Vertex>> stored) {
+        return new Iterator<E>() {
+            @Override
+            public boolean hasNext() {
+                return stored.hasNext();
+            }
+
+            @Override
+            public E next() {
+                return release(stored.next());
+            }
+        };
+    }
+
+    /**
+     * A live read-only view of the vertices.
+     */
+    private class VertexView extends AbstractSet<V> {
+
+        @Override
+        public Iterator<V> iterator() {
+            Iterator<Vertex> stored = graph.allVertices().iterator();
+            return new Iterator<V>() {
+                @Override
+                public boolean hasNext() {
+                    return stored.hasNext();
+                }
+
+                @Override
+                public V next() {
+                    return release(stored.next());
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return graph.allVertices().size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return graph.allVertices().contains(o);
+        }
+    }
+
+    /**
+     * A live read-only view of the edges incident on one vertex.
+     */
+    private class IncidentEdgeView extends AbstractSet<E> {
+        private final V v;
+
+        IncidentEdgeView(V v) {
+            this.v = v;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return released(graph.allEdges(v).iterator());
+        }
+
+        @Override
+        public int size() {
+            return graph.allEdges(v).size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return graph.allEdges(v).contains(o);
+        }
+    }
+
+    /**
+     * A live read-only view of every edge.
+     */
+    private class EdgeView extends AbstractSet<E> {
+
+        @Override
+        public Iterator<E> iterator() {
+            return released(graph.allEdges().iterator());
+        }
+
+        @Override
+        public int size() {
+            return graph.allEdges().size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return graph.allEdges().contains(o);
+        }
+    }
+
+    /**
+     * A live read-only view of the neighbours of one vertex.
+     */
+    private class NeighbourView extends AbstractMap<V, E> {
+        private final V v;
+
+        NeighbourView(V v) {
+            this.v = v;
+        }
+
+        @Override
+        public E get(Object key) {
+            return release(graph.getNeighbours(v).get(key));
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return graph.getNeighbours(v).containsKey(key);
+        }
+
+        @Override
+        public Set<Entry<V, E>> entrySet() {
+            return new AbstractSet<Entry<V, E>>() {
+                @Override
+                public Iterator<Entry<V, E>> iterator() {
+                    Iterator<Entry<Vertex, Edge<Vertex>>> stored = graph.getNeighbours(v).entrySet().iterator();
+                    return new Iterator<Entry<V, E>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return stored.hasNext();
+                        }
+
+                        @Override
+                        public Entry<V, E> next() {
+                            Entry<Vertex, Edge<Vertex>> entry = stored.next();
+                            return new SimpleImmutableEntry<>(release(entry.getKey()), release(entry.getValue()));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return graph.getNeighbours(v).size();
+                }
+            };
+        }
+    }
+
+    /**
+     * Frozen storage: the vertices and edges in a CSRGraph, which answers every
+     * query and rejects every mutation. Graph thaws it before it mutates.
+     */
+    private static class FrozenStorage implements MGraph<Vertex, Edge<Vertex>> {
+        private final CSRGraph<Vertex, Edge<Vertex>> rows;
+
+        FrozenStorage(CSRGraph<Vertex, Edge<Vertex>> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean addVertex(Vertex v) {
+            throw new UnsupportedOperationException("frozen storage cannot change");
+        }
+
+        @Override
+        public boolean vertex(Vertex v) {
+            return rows.vertex(v);
+        }
+
+        @Override
+        public Vertex vertexById(int id) {
+            return rows.vertexById(id);
+        }
+
+        @Override
+        public boolean addEdge(Edge<Vertex> e) {
+            throw new UnsupportedOperationException("frozen storage cannot change");
+        }
+
+        @Override
+        public boolean edge(Edge<Vertex> e) {
+            return rows.edge(e.v1(), e.v2());
+        }
+
+        @Override
+        public boolean edge(Vertex v1, Vertex v2) {
+            return rows.edge(v1, v2);
+        }
+
+        @Override
+        public int edgeLength(Vertex v1, Vertex v2) {
+            return rows.edgeLength(v1, v2);
+        }
+
+        @Override
+        public Edge<Vertex> getEdge(Vertex v1, Vertex v2) {
+            return rows.getEdge(v1, v2);
+        }
+
+        @Override
+        public int edgeLengthSum() {
+            return rows.edgeLengthSum();
+        }
+
+        @Override
+        public boolean remove(Edge<Vertex> e) {
+            throw new UnsupportedOperationException("frozen storage cannot change");
+        }
+
+        @Override
+        public boolean remove(Vertex v) {
+            throw new UnsupportedOperationException("frozen storage cannot change");
+        }
+
+        @Override
+        public Set<Vertex> allVertices() {
+            return rows.allVertices();
+        }
+
+        @Override
+        public Set<Edge<Vertex>> allEdges(Vertex v) {
+            return rows.allEdges(v);
+        }
+
+        @Override
+        public Set<Edge<Vertex>> allEdges() {
+            return rows.allEdges();
+        }
+
+        @Override
+        public Map<Vertex, Edge<Vertex>> getNeighbours(Vertex v) {
+            return rows.getNeighbours(v);
+        }
     }
 
     @Override
@@ -3,6 +3,7 @@ package cpen221.mp2.graph;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.ToIntFunction;
 
 public interface ImGraph<V extends Vertex, E extends Edge<V>> {
 
@@ -26,6 +27,23 @@ public interface ImGraph<V extends Vertex, E extends Edge<V>> {
      */
     List<V> shortestPath(V source, V sink);
 
+    /**
+     * Compute the shortest path from source to sink, letting a heuristic steer the
+     * search towards sink (A* search). The heuristic estimates the path length from
+     * a vertex to sink; it must never overestimate it, and for every edge u-v it must
+     * satisfy heuristic(u) <= length(u-v) + heuristic(v). A heuristic that is always 0
+     * gives Dijkstra's algorithm.
+     * Implementations that cannot use the heuristic may ignore it.
+     *
+     * @param source    the start vertex
+     * @param sink      the end vertex
+     * @param heuristic a lower bound on the path length from a vertex to sink
+     * @return the vertices, in order, on the shortest path from source to sink (both end points are part of the list)
+     */
+    default List<V> shortestPath(V source, V sink, ToIntFunction<? super V> heuristic) {
+        return shortestPath(source, sink);
+    }
+
     /**
      * Compute the length of a given path
      *
@@ -0,0 +1,299 @@
+package cpen221.mp2.graph;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Lower bounds on shortest path lengths from a few landmark vertices (ALT: A*,
+ * landmarks and the triangle inequality). The index stores the distance from each
+ * landmark L to every vertex; for any vertices v and t, |d(L, t) - d(L, v)| is a
+ * lower bound on d(v, t). The largest of these bounds over the landmarks is a
+ * consistent heuristic for ImGraph.shortestPath(source, sink, heuristic).
+ * <p>
+ * Unlike a heuristic built from coordinates, this works for any vertex type.
+ * The index is built from a snapshot of a graph and does not follow later changes.
+ *
+ * @param <V> represents a vertex type
+ * @param <E> represents an edge type
+ */
+public class LandmarkIndex<V extends Vertex, E extends Edge<V>> {
+
+    /**
+     * The ways landmarks can be chosen.
+     */
+    public enum Selection {
+        /**
+         * Start from the vertex furthest from an arbitrary vertex, then repeatedly add
+         * the vertex furthest from every landmark chosen so far. Landmarks end up on the
+         * edge of the graph, where their bounds are tightest, and every connected
+         * component gets a landmark before any component gets a second one.
+         */
+        FARTHEST,
+        /** Choose the vertices with the most edges. Cheap, and all searches run in parallel. */
+        DEGREE
+    }
+
+    /**
+     * Representation Invariant:
+     * 1. landmarks.length == distance.length and the landmarks are distinct
+     * vertex indices of graph.
+     * <p>
+     * 2. distance[l][i] is the length of the shortest path from landmarks[l] to
+     * the vertex with index i in graph, or Integer.MAX_VALUE if there is no such path.
+     */
+    private final CSRGraph<V, E> graph;
+    private final int[] landmarks;
+    private final int[][] distance;
+
+    private LandmarkIndex(CSRGraph<V, E> graph, int[] landmarks, int[][] distance) {
+        this.graph = graph;
+        this.landmarks = landmarks;
+        this.distance = distance;
+    }
+
+    /**
+     * Return the landmarks, in the order they were chosen.
+     *
+     * @return the landmark vertices
+     */
+    public List<V> landmarks() {
+        List<V> result = new ArrayList<>();
+        for (int l: landmarks) {
+            result.add(graph.vertexAt(l));
+        }
+        return result;
+    }
+
+    /**
+     * Find a lower bound on the length of the shortest path between two vertices.
+     *
+     * @param v one vertex
+     * @param sink the other vertex
+     * @return a lower bound on the path length from v to sink, 0 if either
+     * vertex is not part of the indexed graph
+     */
+    public int lowerBound(V v, V sink) {
+        int i = graph.indexOf(v);
+        int t = graph.indexOf(sink);
+        if (i < 0 || t < 0) {
+            return 0;
+        }
+        int bound = 0;
+        for (int[] row: distance) {
+            bound = Math.max(bound, bound(row[i], row[t]));
+        }
+        return bound;
+    }
+
+    /**
+     * Return a heuristic for searches heading to sink, for use with
+     * ImGraph.shortestPath(source, sink, heuristic). The heuristic never
+     * overestimates, and is consistent, so the search still finds a shortest path.
+     *
+     * @param sink the vertex the search is heading to
+     * @return a function giving a lower bound on the path length from a vertex to sink
+     */
+    public ToIntFunction<V> heuristic(V sink) {
+        int t = graph.indexOf(sink);
+        if (t < 0) {
+            return v -> 0;
+        }
+        int[] toSink = new int[landmarks.length];
+        for (int l = 0; l < landmarks.length; l++) {
+            toSink[l] = distance[l][t];
+        }
+        return v -> {
+            int i = graph.indexOf(v);
+            if (i < 0) {
+                return 0;
+            }
+            int bound = 0;
+            for (int l = 0; l < toSink.length; l++) {
+                bound = Math.max(bound, bound(distance[l][i], toSink[l]));
+            }
+            return bound;
+        };
+    }
+
+    /**
+     * @return the triangle inequality bound from one landmark's distances to two vertices,
+     * 0 if the landmark cannot reach both
+     */
+    private static int bound(int toV, int toSink) {
+        if (toV == Integer.MAX_VALUE || toSink == Integer.MAX_VALUE) {
+            return 0;
+        }
+        return Math.abs(toSink - toV);
+    }
+
+    /**
+     * Builds a LandmarkIndex from a snapshot of a graph.
+     *
+     * @param <V> represents a vertex type
+     * @param <E> represents an edge type
+     */
+    public static class LandmarkIndexBuilder<V extends Vertex, E extends Edge<V>> {
+        private MGraph<V, E> source;
+        private int count;
+        private Selection selection = Selection.FARTHEST;
+        private int parallelism = 1;
+
+        /**
+         * Set the graph to index.
+         */
+        public LandmarkIndexBuilder<V, E> graph(MGraph<V, E> source) {
+            this.source = source;
+            return this;
+        }
+
+        /**
+         * Set the number of landmarks. Graphs with fewer vertices get one landmark per vertex.
+         *
+         * @param count the number of landmarks, count >= 1
+         */
+        public LandmarkIndexBuilder<V, E> landmarks(int count) {
+            if (count < 1) {
+                throw new IllegalArgumentException("there must be at least one landmark");
+            }
+            this.count = count;
+            return this;
+        }
+
+        /**
+         * Set how landmarks are chosen, FARTHEST by default.
+         */
+        public LandmarkIndexBuilder<V, E> selection(Selection selection) {
+            if (selection == null) {
+                throw new IllegalArgumentException("selection cannot be null");
+            }
+            this.selection = selection;
+            return this;
+        }
+
+        /**
+         * Set the number of worker threads the searches from the landmarks are
+         * spread over, 1 by default. The index does not depend on the parallelism.
+         * Only DEGREE selection uses the threads: FARTHEST chooses each landmark
+         * from the searches of the ones before it, so its searches run one at a time.
+         *
+         * @param parallelism the number of worker threads, parallelism >= 1
+         */
+        public LandmarkIndexBuilder<V, E> parallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("parallelism must be at least 1");
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Build the index. Later changes to the source graph are not reflected in it.
+         * Precondition: the source graph and the number of landmarks have been set.
+         */
+        public LandmarkIndex<V, E> build() {
+            if (source == null || count == 0) {
+                throw new IllegalStateException("unset LandmarkIndexBuilder params");
+            }
+
+            CSRGraph<V, E> graph = new CSRGraph.CSRGraphBuilder<V, E>().graph(source).build();
+            int n = graph.vertexCount();
+            int k = Math.min(count, n);
+            int[] landmarks = new int[k];
+            int[][] distance = new int[k][];
+            if (selection == Selection.DEGREE) {
+                ForkJoinPool pool = parallelism == 1 ? null : new ForkJoinPool(parallelism);
+                try {
+                    int[] chosen = byDegree(graph, k);
+                    forEach(pool, k, l -> {
+                        landmarks[l] = chosen[l];
+                        distance[l] = graph.distances(chosen[l]);
+                    });
+                } finally {
+                    if (pool != null) {
+                        pool.shutdown();
+                    }
+                }
+            } else if (k > 0) {
+                //each round needs the searches of the rounds before it, so they run in order
+                int[] nearest = new int[n];
+                Arrays.fill(nearest, Integer.MAX_VALUE);
+                int unreached = 0;
+                for (int l = 0; l < k; l++) {
+                    while (unreached < n && nearest[unreached] != Integer.MAX_VALUE) {
+                        unreached++;
+                    }
+                    //a component without a landmark is seeded from one of its own
+                    //vertices, so its landmark lands on its edge like the first one
+                    landmarks[l] = farthest(unreached < n ? graph.distances(unreached) : nearest);
+                    int[] row = graph.distances(landmarks[l]);
+                    distance[l] = row;
+                    for (int i = 0; i < n; i++) {
+                        nearest[i] = Math.min(nearest[i], row[i]);
+                    }
+                    //never choose a landmark twice, even if every edge has length 0
+                    nearest[landmarks[l]] = -1;
+                }
+            }
+            return new LandmarkIndex<>(graph, landmarks, distance);
+        }
+
+        /**
+         * @return the index of the vertex with the largest entry in nearest other
+         * than Integer.MAX_VALUE, the first such vertex if there is a tie
+         */
+        private static int farthest(int[] nearest) {
+            int best = -1;
+            for (int i = 0; i < nearest.length; i++) {
+                if (nearest[i] != Integer.MAX_VALUE && (best < 0 || nearest[i] > nearest[best])) {
+                    best = i;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * @return the indices of the k vertices with the most edges, ties going to
+         * the smaller index
+         */
+        private static int[] byDegree(CSRGraph<?, ?> graph, int k) {
+            Integer[] order = new Integer[graph.vertexCount()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingInt((Integer i) -> -graph.degree(i)).thenComparingInt(i -> i));
+            int[] landmarks = new int[k];
+            for (int l = 0; l < k; l++) {
+                landmarks[l] = order[l];
+            }
+            return landmarks;
+        }
+
+        /**
+         * Run body for every index in 0..size-1, spread over pool, or on the
+         * calling thread if there is no pool.
+         */
+        private static void forEach(ForkJoinPool pool, int size, IntConsumer body) {
+            if (pool == null) {
+                for (int i = 0; i < size; i++) {
+                    body.accept(i);
+                }
+                return;
+            }
+            try {
+                pool.submit(() -> IntStream.range(0, size).parallel().forEach(body)).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted while building landmark index", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+}
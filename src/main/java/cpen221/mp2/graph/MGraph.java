@@ -21,6 +21,23 @@ public interface MGraph<V extends Vertex, E extends Edge<V>> {
      */
     public boolean vertex(V v);
 
+    /**
+     * Find the vertex with a given id.
+     * This scans every vertex; implementations that index their vertices by id
+     * should override it.
+     *
+     * @param id the id of the vertex of interest
+     * @return the vertex with that id, or null if there is no such vertex
+     */
+    public default V vertexById(int id) {
+        for (V v: allVertices()) {
+            if (v.id() == id) {
+                return v;
+            }
+        }
+        return null;
+    }
+
     /**
      * Add an edge of the graph
      *
@@ -56,6 +73,22 @@ public interface MGraph<V extends Vertex, E extends Edge<V>> {
      */
     public int edgeLength(V v1, V v2);
 
+    /**
+     * Find the edge between two vertices in the graph
+     *
+     * @param v1 the first vertex of the edge
+     * @param v2 the second vertex of the edge
+     * @return the v1-v2 edge
+     * @throws IllegalArgumentException if this edge is not part of the graph
+     */
+    public default E getEdge(V v1, V v2) {
+        E edge = vertex(v1) ? getNeighbours(v1).get(v2) : null;
+        if (edge == null) {
+            throw new IllegalArgumentException("No edge between " + v1 + " and " + v2);
+        }
+        return edge;
+    }
+
     /**
      * Obtain the sum of the lengths of all edges in the graph
      *
@@ -0,0 +1,606 @@
+package cpen221.mp2.graph;
+
+import cpen221.mp2.util.IntMap;
+
+import java.util.*;
+
+/**
+ * An adjacency matrix graph that stores no edge objects. Which pairs of vertices
+ * are connected is kept in one bitset row per vertex, and the edge lengths in a
+ * packed triangular array of ints, so a matrix for n vertices takes about
+ * n * n / 8 bytes of bits and 2 * n * n bytes of lengths instead of n * n references.
+ * Like AMGraph, the matrix doubles when every index is taken.
+ * <p>
+ * Edge tests are a single bit test and edgeLengthSum is a scan over the packed
+ * lengths. Edges are created by an EdgeFactory whenever they are asked for, so
+ * the edges returned are equal to, but not the same objects as, the edges added.
+ * allVertices, allEdges and getNeighbours return live read-only views that create
+ * edges as they are iterated. Callers must not rename the vertices they are handed;
+ * freezing the vertices rules that out.
+ *
+ * @param <V> represents a vertex type
+ * @param <E> represents an edge type
+ */
+public class PackedAMGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E> {
+
+    /**
+     * Creates the edges of a PackedAMGraph on demand.
+     *
+     * @param <V> represents a vertex type
+     * @param <E> represents an edge type
+     */
+    public interface EdgeFactory<V extends Vertex, E extends Edge<V>> {
+
+        /**
+         * Create an edge.
+         *
+         * @param v1     one end of the edge
+         * @param v2     the other end of the edge
+         * @param length the length of the edge
+         * @return an edge between v1 and v2 of the given length
+         */
+        E edge(V v1, V v2, int length);
+    }
+
+    /**
+     * Representation Invariant:
+     * 1. vertices[0..size-1] are the vertices of the graph, vertexToIndex.get(vertices[i]) == i,
+     * idIndex.get(vertices[i].id()) == vertices[i], and vertices[size..] are null.
+     * <p>
+     * 2. Bit j of rows[i] is set iff there is an edge between vertices[i] and vertices[j];
+     * rows is symmetric and only indices below size have bits set.
+     * <p>
+     * 3. For i < j, lengths[slot(i, j)] is the length of the i-j edge, or 0 if there is none.
+     * <p>
+     * 4. edgeCount is the number of edges.
+     * <p>
+     * 5. capacity is the length of vertices and rows, and lengths holds pairs(capacity) ints.
+     */
+    private V[] vertices;
+    private final Map<V, Integer> vertexToIndex;
+    private final IntMap<V> idIndex;
+    private long[][] rows;
+    private int[] lengths;
+    private final EdgeFactory<V, E> edges;
+    private int capacity;
+    private int size;
+    private int edgeCount;
+
+    /* The largest capacity whose packed lengths fit in an array */
+    private static final int MAX_CAPACITY = 65536;
+
+    /**
+     * Create an empty graph with room for a few vertices before it first grows.
+     *
+     * @param edges creates the edges the graph hands out, for example Edge::new
+     * @throws IllegalArgumentException if edges is null
+     */
+    public PackedAMGraph(EdgeFactory<V, E> edges) {
+        this(16, edges);
+    }
+
+    /**
+     * Create an empty graph.
+     *
+     * @param maxVertices the number of vertices the graph holds before it first grows,
+     *                    at least 2
+     * @param edges       creates the edges the graph hands out, for example Edge::new
+     * @throws IllegalArgumentException if maxVertices < 2, edges is null,
+     *                                  or the packed lengths would not fit in an array
+     */
+    public PackedAMGraph(int maxVertices, EdgeFactory<V, E> edges) {
+        if (maxVertices < 2 || edges == null) {
+            throw new IllegalArgumentException("maxVertices must be at least 2 and edges cannot be null");
+        }
+        if (maxVertices > MAX_CAPACITY) {
+            throw new IllegalArgumentException("too many vertices for a packed matrix");
+        }
+        this.capacity = maxVertices;
+        this.edges = edges;
+        this.vertices = vertexArray(maxVertices);
+        this.vertexToIndex = new HashMap<>();
+        this.idIndex = new IntMap<>();
+        this.rows = new long[maxVertices][(maxVertices + 63) >>> 6];
+        this.lengths = new int[pairs(maxVertices)];
+    }
+
+    /**
+     * @return an array of capacity nulls to hold the vertices
+     */
+    @SuppressWarnings("unchecked")
+    private V[] vertexArray(int capacity) {
+        return (V[]) new Vertex[capacity];
+    }
+
+    /**
+     * @return the number of pairs of distinct indices below n, n * (n - 1) / 2
+     */
+    private static int pairs(int n) {
+        return (int) ((long) n * (n - 1) / 2);
+    }
+
+    /**
+     * Find the position of the i-j length in the packed triangle. Column j of the
+     * triangle holds the lengths to indices 0..j-1, and the columns are laid out
+     * one after the other, so growing the matrix only appends columns.
+     * Precondition: i != j, both below capacity.
+     */
+    private int slot(int i, int j) {
+        if (i > j) {
+            int temp = i;
+            i = j;
+            j = temp;
+        }
+        return pairs(j) + i;
+    }
+
+    /**
+     * Double the capacity of the matrix, or raise it to MAX_CAPACITY.
+     *
+     * @throws IllegalArgumentException if the matrix is at MAX_CAPACITY already
+     */
+    private void grow() {
+        if (capacity == MAX_CAPACITY) {
+            throw new IllegalArgumentException("too many vertices for a packed matrix");
+        }
+        int grown = (int) Math.min(2L * capacity, MAX_CAPACITY);
+        int words = (grown + 63) >>> 6;
+        long[][] grownRows = new long[grown][];
+        for (int i = 0; i < grown; i++) {
+            grownRows[i] = i < size ? Arrays.copyOf(rows[i], words) : new long[words];
+        }
+        rows = grownRows;
+        vertices = Arrays.copyOf(vertices, grown);
+        lengths = Arrays.copyOf(lengths, pairs(grown));
+        capacity = grown;
+    }
+
+    /**
+     * @return true iff bit j of row i is set
+     */
+    private boolean connected(int i, int j) {
+        return (rows[i][j >>> 6] & (1L << j)) != 0;
+    }
+
+    /**
+     * Set or clear the bits for the i-j pair in both rows.
+     */
+    private void connect(int i, int j, boolean on) {
+        if (on) {
+            rows[i][j >>> 6] |= 1L << j;
+            rows[j][i >>> 6] |= 1L << i;
+        } else {
+            rows[i][j >>> 6] &= ~(1L << j);
+            rows[j][i >>> 6] &= ~(1L << i);
+        }
+    }
+
+    /**
+     * Return the first index at or after from whose bit is set in row i,
+     * or capacity if there is none.
+     */
+    private int nextNeighbour(int i, int from) {
+        long[] row = rows[i];
+        int word = from >>> 6;
+        if (word >= row.length) {
+            return capacity;
+        }
+        long bits = row[word] & (-1L << from);
+        while (bits == 0) {
+            if (++word == row.length) {
+                return capacity;
+            }
+            bits = row[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * Return the index of a vertex, or -1 if it is not in the graph.
+     */
+    private int indexOf(Object v) {
+        Integer index = vertexToIndex.get(v);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Create the edge between the vertices with index i and j, which must be connected.
+     */
+    private E edgeAt(int i, int j) {
+        return edges.edge(vertices[i], vertices[j], lengths[slot(i, j)]);
+    }
+
+    /**
+     * Assigns a new vertex the next free index of the matrix, doubling the matrix
+     * first if it is full.
+     *
+     * @param v vertex to add
+     * @return true if added, false if v or its id is already in the graph
+     * @throws IllegalArgumentException if the graph already holds 65536 vertices
+     */
+    public boolean addVertex(V v) {
+        if (vertex(v) || idIndex.containsKey(v.id())) {
+            return false;
+        }
+        if (size == capacity) {
+            grow();
+        }
+        vertices[size] = v;
+        vertexToIndex.put(v, size);
+        idIndex.put(v.id(), v);
+        size++;
+        return true;
+    }
+
+    /**
+     * Find the vertex with a given id in constant expected time.
+     *
+     * @param id the id of the vertex of interest
+     * @return the vertex with that id, or null if there is no such vertex
+     */
+    public V vertexById(int id) {
+        return idIndex.get(id);
+    }
+
+    /**
+     * Check if the vertex is in the graph.
+     *
+     * @param v vertex to check in the graph
+     * @return true if present, false otherwise
+     */
+    public boolean vertex(V v) {
+        return vertexToIndex.containsKey(v);
+    }
+
+    /**
+     * Adds an edge that didn't exist previously. Only its end points and length are kept.
+     *
+     * @param e the edge to add to the graph
+     * @return true if successfully added, false otherwise
+     */
+    public boolean addEdge(E e) {
+        int i = indexOf(e.v1());
+        int j = indexOf(e.v2());
+        if (i < 0 || j < 0 || connected(i, j)) {
+            return false;
+        }
+        connect(i, j, true);
+        lengths[slot(i, j)] = e.length();
+        edgeCount++;
+        return true;
+    }
+
+    /**
+     * Check if the edge exists within the graph.
+     *
+     * @param e the edge to check in the graph
+     * @return true if within, false otherwise
+     */
+    public boolean edge(E e) {
+        return edge(e.v1(), e.v2());
+    }
+
+    /**
+     * Check if there is an edge between two given vertices with a single bit test.
+     *
+     * @param v1 the first vertex of the edge
+     * @param v2 the second vertex of the edge
+     * @return true if within, false otherwise
+     */
+    public boolean edge(V v1, V v2) {
+        int i = indexOf(v1);
+        int j = indexOf(v2);
+        return i >= 0 && j >= 0 && connected(i, j);
+    }
+
+    /**
+     * Given two vertices, finds the length of the edge between them.
+     *
+     * @param v1 the first vertex of the edge
+     * @param v2 the second vertex of the edge
+     * @return the length of the edge
+     * @throws IllegalArgumentException if the two vertices aren't connected
+     */
+    public int edgeLength(V v1, V v2) {
+        if (!edge(v1, v2)) {
+            throw new IllegalArgumentException("No edge between " + v1 + " and " + v2);
+        }
+        return lengths[slot(indexOf(v1), indexOf(v2))];
+    }
+
+    /**
+     * Create the edge between two vertices.
+     *
+     * @param v1 the first vertex of the edge
+     * @param v2 the second vertex of the edge
+     * @return a new edge from v1 to v2 with the stored length
+     * @throws IllegalArgumentException if the two vertices aren't connected
+     */
+    public E getEdge(V v1, V v2) {
+        if (!edge(v1, v2)) {
+            throw new IllegalArgumentException("No edge between " + v1 + " and " + v2);
+        }
+        return edgeAt(indexOf(v1), indexOf(v2));
+    }
+
+    /**
+     * Obtain the sum of the lengths of all edges in the graph, a scan of the
+     * packed lengths of the vertices in the graph, which are 0 for missing edges.
+     *
+     * @return the sum of the lengths of all edges in the graph
+     */
+    public int edgeLengthSum() {
+        int sum = 0;
+        for (int k = pairs(size) - 1; k >= 0; k--) {
+            sum += lengths[k];
+        }
+        return sum;
+    }
+
+    /**
+     * Remove an edge from the graph.
+     *
+     * @param e the edge to remove
+     * @return true if e was successfully removed, false otherwise
+     */
+    public boolean remove(E e) {
+        if (!edge(e)) {
+            return false;
+        }
+        int i = indexOf(e.v1());
+        int j = indexOf(e.v2());
+        connect(i, j, false);
+        lengths[slot(i, j)] = 0;
+        edgeCount--;
+        return true;
+    }
+
+    /**
+     * Remove a vertex from the graph in time linear in the capacity: its edges are
+     * removed and the vertex with the last index takes its place.
+     *
+     * @param v the vertex to remove
+     * @return true if v was successfully removed, false otherwise
+     */
+    public boolean remove(V v) {
+        int removed = indexOf(v);
+        if (removed < 0) {
+            return false;
+        }
+        for (int j = nextNeighbour(removed, 0); j < capacity; j = nextNeighbour(removed, j + 1)) {
+            connect(removed, j, false);
+            lengths[slot(removed, j)] = 0;
+            edgeCount--;
+        }
+
+        int last = size - 1;
+        if (removed != last) {
+            //move the last vertex's edges, its row and column, into the freed index
+            for (int j = nextNeighbour(last, 0); j < capacity; j = nextNeighbour(last, j + 1)) {
+                int length = lengths[slot(last, j)];
+                connect(last, j, false);
+                lengths[slot(last, j)] = 0;
+                connect(removed, j, true);
+                lengths[slot(removed, j)] = length;
+            }
+            vertices[removed] = vertices[last];
+            vertexToIndex.put(vertices[removed], removed);
+        }
+        vertices[last] = null;
+        vertexToIndex.remove(v);
+        idIndex.remove(v.id());
+        size--;
+        return true;
+    }
+
+    /**
+     * Obtain a live read-only view of the vertices in the graph.
+     *
+     * @return a set of all vertices in the graph
+     */
+    public Set<V> allVertices() {
+        return Collections.unmodifiableSet(vertexToIndex.keySet());
+    }
+
+    /**
+     * Obtain a live read-only view of the edges incident on v.
+     *
+     * @param v the vertex of interest
+     * @return all edges incident on v
+     */
+    public Set<E> allEdges(V v) {
+        return new IncidentEdgeView(v);
+    }
+
+    /**
+     * Obtain a live read-only view of the edges in the graph.
+     *
+     * @return all edges in the graph
+     */
+    public Set<E> allEdges() {
+        return new EdgeView();
+    }
+
+    /**
+     * Obtain a live read-only view of the neighbours of vertex v.
+     *
+     * @param v is the vertex of interest, v has to exist within the graph
+     * @return a map containing each vertex w that neighbours v and the edge between v and w
+     */
+    public Map<V, E> getNeighbours(V v) {
+        return new NeighbourView(v);
+    }
+
+    /**
+     * A live read-only view of the edges incident on one vertex, each created as it
+     * is reached. The row of the vertex is looked up on every access, since removing
+     * another vertex may move it; once the vertex is removed, the view is empty.
+     */
+    private class IncidentEdgeView extends AbstractSet<E> {
+        private final V v;
+
+        IncidentEdgeView(V v) {
+            this.v = v;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            int row = indexOf(v);
+            if (row < 0) {
+                return Collections.emptyIterator();
+            }
+            return new Iterator<E>() {
+                private int column = nextNeighbour(row, 0);
+
+                @Override
+                public boolean hasNext() {
+                    return column < capacity;
+                }
+
+                @Override
+                public E next() {
+                    if (column >= capacity) {
+                        throw new NoSuchElementException();
+                    }
+                    E edge = edgeAt(row, column);
+                    column = nextNeighbour(row, column + 1);
+                    return edge;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            int row = indexOf(v);
+            if (row < 0) {
+                return 0;
+            }
+            int size = 0;
+            for (long word: rows[row]) {
+                size += Long.bitCount(word);
+            }
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Edge<?>)) {
+                return false;
+            }
+            Edge<?> edge = (Edge<?>) o;
+            int row = indexOf(v);
+            int i = indexOf(edge.v1());
+            int j = indexOf(edge.v2());
+            return row >= 0 && i >= 0 && j >= 0 && (i == row || j == row) && connected(i, j);
+        }
+    }
+
+    /**
+     * A live read-only view of the neighbours of one vertex. Like IncidentEdgeView,
+     * it looks up the row of the vertex on every access.
+     */
+    private class NeighbourView extends AbstractMap<V, E> {
+        private final V v;
+
+        NeighbourView(V v) {
+            this.v = v;
+        }
+
+        @Override
+        public E get(Object key) {
+            return containsKey(key) ? edgeAt(indexOf(v), indexOf(key)) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            int row = indexOf(v);
+            int column = indexOf(key);
+            return row >= 0 && column >= 0 && connected(row, column);
+        }
+
+        @Override
+        public Set<Entry<V, E>> entrySet() {
+            return new AbstractSet<Entry<V, E>>() {
+                @Override
+                public Iterator<Entry<V, E>> iterator() {
+                    Iterator<E> edges = new IncidentEdgeView(v).iterator();
+                    return new Iterator<Entry<V, E>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return edges.hasNext();
+                        }
+
+                        @Override
+                        public Entry<V, E> next() {
+                            E edge = edges.next();
+                            return new SimpleImmutableEntry<>(edge.v2(), edge);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return new IncidentEdgeView(v).size();
+                }
+            };
+        }
+    }
+
+    /**
+     * A live read-only view of every edge, each reported from the row of
+     * its end point with the smaller index.
+     */
+    private class EdgeView extends AbstractSet<E> {
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<E>() {
+                private int row = 0;
+                private int column = -1;
+
+                {
+                    advance();
+                }
+
+                private void advance() {
+                    column = nextNeighbour(row, column + 1);
+                    while (column >= capacity && row < size - 1) {
+                        row++;
+                        column = nextNeighbour(row, row + 1);
+                    }
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return column < capacity;
+                }
+
+                @Override
+                public E next() {
+                    if (column >= capacity) {
+                        throw new NoSuchElementException();
+                    }
+                    E edge = edgeAt(row, column);
+                    advance();
+                    return edge;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return edgeCount;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Edge<?>)) {
+                return false;
+            }
+            Edge<?> edge = (Edge<?>) o;
+            int i = indexOf(edge.v1());
+            int j = indexOf(edge.v2());
+            return i >= 0 && j >= 0 && connected(i, j);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package cpen221.mp2.graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The result of one single-source shortest path search: the length of a shortest
+ * path from the source to every vertex it reached, and the tree those paths form.
+ * distanceTo and lastEdgeTo take constant time and pathTo takes time proportional
+ * to the length of the path, so one search answers any number of sinks.
+ * <p>
+ * A tree is a snapshot of the graph it was computed from and does not follow
+ * later changes to the graph. Like the graph, it hands out frozen vertices and
+ * edges as they are stored and copies of the rest.
+ *
+ * @param <V> represents a vertex type
+ * @param <E> represents an edge type
+ */
+public class ShortestPathTree<V extends Vertex, E extends Edge<V>> {
+
+    /**
+     * Representation Invariant:
+     * 1. vertices holds the vertices the search reached, without duplicates,
+     * starting with the source, and index.get(vertices.get(i)) == i.
+     * <p>
+     * 2. For i in 0..vertices.size()-1, distance[i] is the length of a shortest path
+     * from the source to vertices.get(i), previous[i] is the position of the vertex
+     * before it on that path and lastEdge[i] is the edge between the two.
+     * previous[0] == -1 and lastEdge[0] == null.
+     * <p>
+     * 3. The arrays have at least vertices.size() entries; entries past that are unused.
+     */
+    private final List<V> vertices;
+    private final Map<V, Integer> index;
+    private final int[] distance;
+    private final int[] previous;
+    private final E[] lastEdge;
+
+    /**
+     * Create a tree from the tables of a search, which the tree takes ownership of.
+     * A search that stopped early may pass vertices whose path length is not final;
+     * callers that know the limit of the search only use the ones within it.
+     */
+    ShortestPathTree(List<V> vertices, Map<V, Integer> index, int[] distance, int[] previous, E[] lastEdge) {
+        this.vertices = vertices;
+        this.index = index;
+        this.distance = distance;
+        this.previous = previous;
+        this.lastEdge = lastEdge;
+    }
+
+    /**
+     * @return the vertex every path in this tree starts from
+     */
+    public V source() {
+        return Graph.release(vertices.get(0));
+    }
+
+    /**
+     * @param v a vertex
+     * @return true iff there is a path from the source to v
+     */
+    public boolean hasPathTo(V v) {
+        return index.containsKey(v);
+    }
+
+    /**
+     * Find the length of the shortest path from the source to a vertex.
+     *
+     * @param v the end vertex
+     * @return the length of the shortest path from the source to v,
+     * or Integer.MAX_VALUE if v cannot be reached from the source
+     */
+    public int distanceTo(V v) {
+        Integer i = index.get(v);
+        return i == null ? Integer.MAX_VALUE : distance[i];
+    }
+
+    /**
+     * Find the last edge on the shortest path from the source to a vertex.
+     *
+     * @param v the end vertex
+     * @return the edge by which the shortest path from the source enters v,
+     * or null if v is the source or cannot be reached from it
+     */
+    public E lastEdgeTo(V v) {
+        Integer i = index.get(v);
+        return i == null ? null : Graph.release(lastEdge[i]);
+    }
+
+    /**
+     * Find the shortest path from the source to a vertex.
+     *
+     * @param sink the end vertex
+     * @return the vertices, in order, on a shortest path from the source to sink
+     * @throws IllegalArgumentException if sink cannot be reached from the source
+     */
+    public List<V> pathTo(V sink) {
+        Integer i = index.get(sink);
+        if (i == null) {
+            throw new IllegalArgumentException(sink + " cannot be reached from " + source());
+        }
+        List<V> reversedOrder = new ArrayList<>();
+        for (int current = i; current >= 0; current = previous[current]) {
+            reversedOrder.add(Graph.release(vertices.get(current)));
+        }
+        Collections.reverse(reversedOrder);
+        return reversedOrder;
+    }
+
+    /**
+     * @return a rough estimate of the heap this tree retains, in bytes
+     */
+    long footprint() {
+        //the three arrays, plus a list slot, a boxed position and a map entry per vertex reached
+        return 16L * distance.length + 64L * vertices.size();
+    }
+
+    /**
+     * @return the number of vertices the search reached, the source included
+     */
+    int size() {
+        return vertices.size();
+    }
+
+    /**
+     * @param i a position in the order the search reached vertices, 0 <= i < size()
+     * @return the vertex at position i
+     */
+    V vertexAt(int i) {
+        return vertices.get(i);
+    }
+
+    /**
+     * @param i a position in the order the search reached vertices, 0 <= i < size()
+     * @return the path length of the vertex at position i
+     */
+    int distanceAt(int i) {
+        return distance[i];
+    }
+
+    /**
+     * @param i a position in the order the search reached vertices, 0 <= i < size()
+     * @return the position of the vertex before it on its path, -1 for the source
+     */
+    int previousAt(int i) {
+        return previous[i];
+    }
+
+    /**
+     * @param i a position in the order the search reached vertices, 0 <= i < size()
+     * @return the last edge on the path to the vertex at position i, null for the source
+     */
+    E lastEdgeAt(int i) {
+        return lastEdge[i];
+    }
+}
@@ -3,10 +3,15 @@ package cpen221.mp2.graph;
 /**
  * Represents a graph vertex. Each vertex has an associated id and name.
  * No two vertices in the same graph should have the same id.
+ * <p>
+ * A vertex can be frozen, after which its name can no longer change. A frozen
+ * vertex is immutable, so clone() returns it as is, and graphs hand out the
+ * stored instance instead of a copy.
  */
 public class Vertex implements Cloneable {
     private final int id;
     private String name;
+    private boolean frozen;
 
     /**
      * Create a new vertex
@@ -21,6 +26,9 @@ public class Vertex implements Cloneable {
 
     @Override
     public Vertex clone() {
+        if (frozen) {
+            return this;
+        }
         return new Vertex(this.id, this.name);
     }
 
@@ -57,11 +65,30 @@ public class Vertex implements Cloneable {
      * Update the vertex name
      *
      * @param name the new vertex name
+     * @throws UnsupportedOperationException if this vertex is frozen
      */
     public void updateName(String name) {
+        if (frozen) {
+            throw new UnsupportedOperationException("a frozen vertex cannot be renamed");
+        }
         this.name = name;
     }
 
     //// --- any new methods, if necessary, go below this link --- ////
 
+    /**
+     * Freeze this vertex so that its name can no longer change.
+     * Freezing cannot be undone.
+     */
+    public void freeze() {
+        frozen = true;
+    }
+
+    /**
+     * @return true iff this vertex is frozen
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
 }
@@ -355,9 +355,7 @@ public class SpacePanel extends JPanel {
         for (cpen221.mp2.gui.Planet p : nToP.values()) {
             p.draw(g2d);
         }
-        for (ConcurrentMap.Entry<Link, Line> el : eToL.entrySet()) {
-            Line l = el.getValue();
-            l.setVisits(el.getKey().getVisits());
+        for (Line l : eToL.values()) {
             l.draw(g2d);
         }
         if (ship != null) {
@@ -2,6 +2,7 @@ package cpen221.mp2.models;
 
 import cpen221.mp2.controllers.GathererStage;
 import cpen221.mp2.controllers.HunterStage;
+import cpen221.mp2.graph.ContractionHierarchy;
 import cpen221.mp2.graph.ImGraph;
 
 import java.awt.geom.Point2D;
@@ -285,6 +286,11 @@ public class GameModel implements Model, Controllable {
         return planetGraph;
     }
 
+    @Override
+    public ContractionHierarchy<Planet, Link> routes() {
+        return universe.routes();
+    }
+
     @Override
     public HunterStage beginHuntStage() {
         stage = HUNT;
@@ -354,6 +360,11 @@ public class GameModel implements Model, Controllable {
             public ImGraph<Planet, Link> planetGraph() {
                 return GameModel.this.planetGraph;
             }
+
+            @Override
+            public ContractionHierarchy<Planet, Link> routes() {
+                return GameModel.this.routes();
+            }
         };
     }
 
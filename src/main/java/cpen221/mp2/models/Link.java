@@ -4,6 +4,7 @@ import cpen221.mp2.graph.Edge;
 import cpen221.mp2.util.Util;
 
 import java.util.Objects;
+import java.util.function.ToIntFunction;
 
 /**
  * Links are weighted undirected connections between two planets.
@@ -13,19 +14,18 @@ import java.util.Objects;
  * Link implements GameElement, indicating that it is a component of
  * a game universe and has some user-facing representation.
  * <p>
- * An instance represents a link between two planets.
+ * An instance represents a link between two planets. Planets are frozen, so
+ * links are immutable and are shared rather than copied by the graphs that hold
+ * them. For that reason a link keeps no per-game state such as a visit count.
  */
 public class Link extends Edge<Planet> implements GameElement {
 
-    private int visits; // The number of times this cpen221.mp2.graph.Edge has been visited.
-
     /**
      * Constructor: An edge with end planets pl1 and pl2.
      * Precondition: pl1 and pl2 are non-null, non-equal Nodes. length > 0.
      */
     Link(Planet pl1, Planet pl2, int length) {
         super(pl1, pl2, length);
-        visits = 0;
     }
 
     /**
@@ -45,6 +45,27 @@ public class Link extends Edge<Planet> implements GameElement {
         return new Link(p1, p2, length);
     }
 
+    /**
+     * Return a heuristic for searches heading to target: a lower bound on the
+     * length of any path of links from an element to target.
+     * <p>
+     * A link is the straight-line distance between its planets rounded down, so
+     * a link of length L spans a distance below L + 1. Scaling the straight-line
+     * distance by shortestLink / (shortestLink + 1) therefore never overestimates,
+     * and the result can guide ImGraph.shortestPath(source, sink, heuristic).
+     *
+     * @param target       the element the search is heading to
+     * @param shortestLink no link in the graph is shorter than this; 1 is always safe
+     * @return a function giving a lower bound on the path length from an element to target
+     */
+    public static ToIntFunction<GameElement> lowerBound(GameElement target, int shortestLink) {
+        if (shortestLink < 1) {
+            throw new IllegalArgumentException("shortestLink must be at least 1");
+        }
+        double scale = shortestLink / (shortestLink + 1.0);
+        return element -> (int) (scale * Util.distance(element.x(), element.y(), target.x(), target.y()));
+    }
+
     /**
      * Return true iff this link and e share a planet.
      */
@@ -121,24 +142,5 @@ public class Link extends Edge<Planet> implements GameElement {
         return (int) (((y1 + y2) / 2.0) + 0.5);
     }
 
-    /**
-     * Increase the amount of times this link has been visited by 1.
-     * <p>
-     * modifies clause: the number of times this link has been visited is increase by 1.
-     * </p>
-     */
-    void visit() {
-        ++visits;
-    }
-
-    /**
-     * Return the number of times this link has been visited.
-     *
-     * @return the number of times think link has been visited.
-     */
-    public int getVisits() {
-        return visits;
-    }
-
 
 }
@@ -8,6 +8,9 @@ import cpen221.mp2.util.Util;
  * 1. a set of edges that exit it,
  * 2. a modifier that affects the ship's speed upon visiting it,
  * 3. the amount of spice on the planet and the rate at which they are lost.
+ * <p>
+ * Planets are frozen when they are created, so the name and ID of a planet never
+ * change and graphs of planets return the stored planets instead of copies.
  */
 public class Planet extends Vertex implements GameElement {
     int spice; // Current amount of spice on this planet; always >= 0
@@ -23,10 +26,14 @@ public class Planet extends Vertex implements GameElement {
         this.x = x;
         this.y = y;
         this.spice = spice;
+        freeze();
     }
 
     @Override
     public Planet clone() {
+        if (isFrozen()) {
+            return this;
+        }
         return new Planet(this.x, this.y, super.name(), super.id(), this.spice);
     }
 
@@ -1,5 +1,6 @@
 package cpen221.mp2.models;
 
+import cpen221.mp2.graph.ContractionHierarchy;
 import cpen221.mp2.graph.Graph;
 import cpen221.mp2.graph.ImGraph;
 import cpen221.mp2.initialization.DelaunayTriangulation;
@@ -34,6 +35,10 @@ public class Universe {
     private int distanceToTarget;
     /* Represents the planetary universe as a graph */
     private Graph<Planet, Link> planetGraph;
+    /* A frozen copy of planetGraph that is handed out to controllers */
+    private ImGraph<Planet, Link> frozenGraph;
+    /* A contraction hierarchy over planetGraph, null until routes() is first called */
+    private ContractionHierarchy<Planet, Link> routes;
     /* The proximity grid of all Planets on this Board. */
     private ProximityGrid planetGrid;
     /* The dimensions of the game viewing area, which is a rectangle. */
@@ -108,15 +113,19 @@ public class Universe {
         }
 
         // add the edges
+        int shortestLink = Integer.MAX_VALUE;
         for (UEdge ue : dt.getEdges()) {
             Planet n1 = pToN.get(ue.p1());
             Planet n2 = pToN.get(ue.p2());
             Link e = Link.createLink(n1, n2);
             planetGraph.addEdge(e);
+            shortestLink = Math.min(shortestLink, e.length());
         }
 
         // remove an arbitrary amount of edges, while keeping connectivity
         planetGraph.pruneRandomEdges(r);
+        // the graph does not change from here on, so keep it in its most compact form
+        planetGraph.setStorageStrategy(Graph.StorageStrategy.FROZEN);
 
         // set the furthest distance (needed for getPing)
         double maxDistance = 0;
@@ -127,7 +136,9 @@ public class Universe {
             }
         }
         furthestNodeDistance = maxDistance;
-        distanceToTarget = planetGraph.pathLength(planetGraph.shortestPath(earth, target));
+        distanceToTarget = planetGraph.pathLength(planetGraph.shortestPath(earth, target,
+                Link.lowerBound(target, shortestLink)));
+        frozenGraph = planetGraph.frozen();
     }
 
     /**
@@ -237,13 +248,7 @@ public class Universe {
      * @return the planet with ID id in this Universe if it exists.
      */
     public Planet getNode(int id) {
-        for (Planet n : planetGrid) {
-            if (n.id() == id) {
-                return n;
-            }
-        }
-
-        return null;
+        return planetGraph.vertexById(id);
     }
 
     /**
@@ -321,8 +326,24 @@ public class Universe {
         return distanceToTarget;
     }
 
+    /**
+     * Return a read-only graph of this Universe. The graph is built once,
+     * after the Universe is generated, and is shared by every caller.
+     */
     public ImGraph<Planet, Link> planetGraph() {
-        return planetGraph;
+        return frozenGraph;
+    }
+
+    /**
+     * Return a contraction hierarchy over the graph of this Universe, for answering
+     * many shortest path queries. It is built on the first call and shared by every caller.
+     */
+    public synchronized ContractionHierarchy<Planet, Link> routes() {
+        if (routes == null) {
+            routes = new ContractionHierarchy.ContractionHierarchyBuilder<Planet, Link>()
+                    .graph(planetGraph).build();
+        }
+        return routes;
     }
 
     /**
@@ -0,0 +1,155 @@
+package cpen221.mp2.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A monotone PriorityQueue of the values 0..capacity-1 for priorities that are
+ * never spread over more than a small range at once (Dial's buckets).
+ * <p>
+ * There is one bucket for each priority in last..last+spread, where last is the
+ * priority last polled, used circularly: a value with priority p is kept in bucket
+ * p % (spread + 1). Polling scans forward from bucket last to the first non-empty
+ * bucket. add and updatePriority take constant time, and a whole run of Dijkstra's
+ * algorithm with edges no longer than spread scans each bucket at most
+ * (longest distance / (spread + 1) + 1) times. There is no allocation after
+ * construction.
+ * <p>
+ * While the queue is not empty, every priority must lie in last..last+spread.
+ */
+public class BucketQueue implements PriorityQueue {
+
+    /**
+     * Class Invariant:
+     * 1. v is in the queue iff bucket[v] >= 0, and size is the number of such values.
+     * <p>
+     * 2. For every v in the queue, last <= priority[v] <= last + spread and
+     * bucket[v] == priority[v] % head.length, where head.length == spread + 1.
+     * <p>
+     * 3. The values with bucket[v] == b form a list starting at head[b], linked
+     * forwards through next and backwards through prev; -1 ends a list and
+     * marks an empty bucket.
+     */
+    private final int spread;
+    private final int[] priority;
+    private final int[] bucket;
+    private final int[] next;
+    private final int[] prev;
+    private final int[] head;
+    private int last;
+    private int size;
+
+    /**
+     * Constructor: an empty queue for the values 0..capacity-1 whose priorities
+     * never differ by more than spread while they are in the queue. For Dijkstra's
+     * algorithm, spread is the length of the longest edge.
+     */
+    public BucketQueue(int capacity, int spread) {
+        if (spread < 0 || spread == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("spread must be in 0..Integer.MAX_VALUE-1");
+        }
+        this.spread = spread;
+        priority = new int[capacity];
+        bucket = new int[capacity];
+        next = new int[capacity];
+        prev = new int[capacity];
+        head = new int[spread + 1];
+        Arrays.fill(bucket, -1);
+        Arrays.fill(head, -1);
+    }
+
+    /**
+     * Put v at the front of the bucket for priority p.
+     */
+    private void link(int v, int p) {
+        int b = p % head.length;
+        priority[v] = p;
+        bucket[v] = b;
+        prev[v] = -1;
+        next[v] = head[b];
+        if (head[b] >= 0) {
+            prev[head[b]] = v;
+        }
+        head[b] = v;
+    }
+
+    /**
+     * Take v out of its bucket.
+     */
+    private void unlink(int v) {
+        if (prev[v] >= 0) {
+            next[prev[v]] = next[v];
+        } else {
+            head[bucket[v]] = next[v];
+        }
+        if (next[v] >= 0) {
+            prev[next[v]] = prev[v];
+        }
+        bucket[v] = -1;
+    }
+
+    /**
+     * Check that p is a valid priority for a value added or updated now.
+     */
+    private void checkPriority(int p) {
+        if (p < last || p - last > spread) {
+            throw new IllegalArgumentException("priority " + p + " is outside " + last + ".." + (last + spread));
+        }
+    }
+
+    @Override
+    public void add(int v, int p) {
+        if (v < 0 || v >= bucket.length) {
+            throw new IllegalArgumentException(v + " is not a value of this queue");
+        }
+        if (bucket[v] >= 0) {
+            throw new IllegalArgumentException("v is already in the queue");
+        }
+        if (size == 0 && p >= 0 && (p < last || p - last > spread)) {
+            //an empty queue can restart from any priority
+            last = p;
+        }
+        checkPriority(p);
+        link(v, p);
+        size++;
+    }
+
+    @Override
+    public void updatePriority(int v, int p) {
+        if (!contains(v)) {
+            throw new IllegalArgumentException("v is not in the priority queue");
+        }
+        checkPriority(p);
+        unlink(v);
+        link(v, p);
+    }
+
+    @Override
+    public int peek() {
+        if (size <= 0) {
+            throw new NoSuchElementException("queue is empty");
+        }
+        while (head[last % head.length] < 0) {
+            last++;
+        }
+        return head[last % head.length];
+    }
+
+    @Override
+    public int poll() {
+        int v = peek();
+        unlink(v);
+        size--;
+        return v;
+    }
+
+    @Override
+    public boolean contains(int v) {
+        return v >= 0 && v < bucket.length && bucket[v] >= 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
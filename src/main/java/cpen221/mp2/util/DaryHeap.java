@@ -0,0 +1,169 @@
+package cpen221.mp2.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A PriorityQueue of the values 0..capacity-1 kept in a d-ary heap, 4-ary by default.
+ * <p>
+ * A wider node makes the tree shallower, so add and updatePriority, which only move
+ * values up, do fewer swaps than in a binary heap, while poll compares more children
+ * per level. That trade pays off for searches like Dijkstra's, which lower priorities
+ * far more often than they poll. Priorities need not be monotone, and there is no
+ * allocation after construction.
+ */
+public class DaryHeap implements PriorityQueue {
+
+    /**
+     * Class Invariant:
+     * 1. d[0..size-1] represents a complete arity-ary tree. d[0] is the root;
+     * For each k, the children of d[k] are d[arity*k+1..arity*k+arity] and,
+     * if k != 0, d[(k-1)/arity] is the parent of d[k].
+     * <p>
+     * 2. The values in d[0..size-1] are all different, and the priority of
+     * value v is priority[v].
+     * <p>
+     * 3. For k in 1..size-1, (d[k]'s priority) >= (d[k]'s parent's priority).
+     * <p>
+     * 4. if value v is in d[k], then position[v] == k, and
+     * position[v] == -1 for every value v that is not in the heap.
+     */
+    private final int arity;
+    private final int[] d;
+    private final int[] position;
+    private final int[] priority;
+    private int size;
+
+    /**
+     * Constructor: an empty 4-ary heap for the values 0..capacity-1.
+     */
+    public DaryHeap(int capacity) {
+        this(capacity, 4);
+    }
+
+    /**
+     * Constructor: an empty heap for the values 0..capacity-1 whose nodes have
+     * arity children.
+     *
+     * @param arity the number of children of each node, arity >= 2
+     */
+    public DaryHeap(int capacity, int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("arity must be at least 2");
+        }
+        this.arity = arity;
+        d = new int[capacity];
+        position = new int[capacity];
+        priority = new int[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    @Override
+    public void add(int v, int p) {
+        if (v < 0 || v >= position.length) {
+            throw new IllegalArgumentException(v + " is not a value of this queue");
+        }
+        if (position[v] >= 0) {
+            throw new IllegalArgumentException("v is already in the queue");
+        }
+        d[size] = v;
+        position[v] = size;
+        priority[v] = p;
+        size++;
+        bubbleUp(size - 1);
+    }
+
+    @Override
+    public int peek() {
+        if (size <= 0) {
+            throw new NoSuchElementException("queue is empty");
+        }
+        return d[0];
+    }
+
+    @Override
+    public int poll() {
+        int v = peek();
+        size--;
+        if (size > 0) {
+            d[0] = d[size];
+            position[d[0]] = 0;
+            bubbleDown(0);
+        }
+        position[v] = -1;
+        return v;
+    }
+
+    @Override
+    public void updatePriority(int v, int p) {
+        if (!contains(v)) {
+            throw new IllegalArgumentException("v is not in the priority queue");
+        }
+        int oldP = priority[v];
+        priority[v] = p;
+        if (p < oldP) {
+            bubbleUp(position[v]);
+        } else if (p > oldP) {
+            bubbleDown(position[v]);
+        }
+    }
+
+    @Override
+    public boolean contains(int v) {
+        return v >= 0 && v < position.length && position[v] >= 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Move d[k] up to its right place. Rather than swapping at every level, the
+     * parents that belong below it are shifted down and it is written once.
+     */
+    private void bubbleUp(int k) {
+        int v = d[k];
+        int p = priority[v];
+        while (k > 0) {
+            int parent = (k - 1) / arity;
+            if (priority[d[parent]] <= p) {
+                break;
+            }
+            d[k] = d[parent];
+            position[d[k]] = k;
+            k = parent;
+        }
+        d[k] = v;
+        position[v] = k;
+    }
+
+    /**
+     * Move d[k] down to its right place, shifting its smallest children up.
+     */
+    private void bubbleDown(int k) {
+        int v = d[k];
+        int p = priority[v];
+        while (true) {
+            int first = arity * k + 1;
+            if (first >= size) {
+                break;
+            }
+            int last = Math.min(first + arity, size);
+            int smallest = first;
+            for (int c = first + 1; c < last; c++) {
+                if (priority[d[c]] < priority[d[smallest]]) {
+                    smallest = c;
+                }
+            }
+            if (priority[d[smallest]] >= p) {
+                break;
+            }
+            d[k] = d[smallest];
+            position[d[k]] = k;
+            k = smallest;
+        }
+        d[k] = v;
+        position[v] = k;
+    }
+}
@@ -0,0 +1,97 @@
+package cpen221.mp2.util;
+
+/**
+ * An instance is a disjoint-set forest over the elements 0..n-1, using
+ * union by rank and path compression. Every element starts in a set of its own.
+ */
+public class DisjointSet {
+
+    /**
+     * Class Invariant:
+     * 1. parent.length == rank.length == n, the number of elements.
+     * <p>
+     * 2. For k in 0..n-1, following parent from k reaches a root r with
+     * parent[r] == r, and r is the representative of k's set.
+     * <p>
+     * 3. rank[r] is an upper bound on the height of the tree rooted at r.
+     * <p>
+     * 4. count is the number of roots, i.e. the number of disjoint sets.
+     */
+    private final int[] parent;
+    private final byte[] rank;
+    private int count;
+
+    /**
+     * Constructor: n singleton sets {0}, {1}, ..., {n-1}.
+     * Throw an IllegalArgumentException if n is negative.
+     */
+    public DisjointSet(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n cannot be negative");
+        }
+        parent = new int[n];
+        rank = new byte[n];
+        for (int k = 0; k < n; k++) {
+            parent[k] = k;
+        }
+        count = n;
+    }
+
+    /**
+     * Return the representative of the set containing x.
+     * Precondition: 0 <= x < n.
+     * The amortized time is effectively constant.
+     */
+    public int find(int x) {
+        int root = x;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        // compress the path so every node on it points at the root
+        while (parent[x] != root) {
+            int next = parent[x];
+            parent[x] = root;
+            x = next;
+        }
+        return root;
+    }
+
+    /**
+     * Merge the sets containing x and y.
+     * Precondition: 0 <= x < n, 0 <= y < n.
+     * Return true if the sets were merged, false if x and y were already in the same set.
+     */
+    public boolean union(int x, int y) {
+        int rx = find(x);
+        int ry = find(y);
+        if (rx == ry) {
+            return false;
+        }
+        if (rank[rx] < rank[ry]) {
+            parent[rx] = ry;
+        } else if (rank[rx] > rank[ry]) {
+            parent[ry] = rx;
+        } else {
+            parent[ry] = rx;
+            rank[rx]++;
+        }
+        count--;
+        return true;
+    }
+
+    /**
+     * Return true iff x and y are in the same set.
+     * Precondition: 0 <= x < n, 0 <= y < n.
+     */
+    public boolean connected(int x, int y) {
+        return find(x) == find(y);
+    }
+
+    /**
+     * Return the number of disjoint sets.
+     * This operation takes constant time.
+     */
+    public int count() {
+        return count;
+    }
+}
@@ -0,0 +1,42 @@
+package cpen221.mp2.util;
+
+/**
+ * A PriorityQueue backed by a min Heap. Any value >= 0 can be added, and
+ * priorities need not be monotone.
+ */
+public class HeapQueue implements PriorityQueue {
+    private final Heap<Integer> heap = new Heap<>(true);
+
+    @Override
+    public void add(int v, int p) {
+        if (v < 0) {
+            throw new IllegalArgumentException("v must be at least 0");
+        }
+        heap.add(v, p);
+    }
+
+    @Override
+    public int peek() {
+        return heap.peek();
+    }
+
+    @Override
+    public int poll() {
+        return heap.poll();
+    }
+
+    @Override
+    public void updatePriority(int v, int p) {
+        heap.updatePriority(v, p);
+    }
+
+    @Override
+    public boolean contains(int v) {
+        return heap.map.containsKey(v);
+    }
+
+    @Override
+    public int size() {
+        return heap.size();
+    }
+}
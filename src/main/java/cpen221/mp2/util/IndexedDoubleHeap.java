@@ -0,0 +1,70 @@
+package cpen221.mp2.util;
+
+/**
+ * An instance is a min-heap or a max-heap of distinct values 0..capacity-1
+ * with priorities of type double.
+ */
+public class IndexedDoubleHeap extends IndexedHeap {
+
+    /**
+     * Class Invariant: the priority of value v in the heap is priority[v].
+     */
+    private final double[] priority;
+
+    /**
+     * Constructor: an empty heap for the values 0..capacity-1.
+     * It is a min-heap if isMin is true, a max-heap if isMin is false.
+     */
+    public IndexedDoubleHeap(boolean isMin, int capacity) {
+        super(isMin, capacity);
+        priority = new double[capacity];
+    }
+
+    /**
+     * Constructor: a heap holding every value 0..priorities.length-1, value v
+     * with priority priorities[v]. It is a min-heap if isMin is true, a max-heap
+     * if isMin is false. The heap is built bottom-up in linear time.
+     */
+    public IndexedDoubleHeap(boolean isMin, double[] priorities) {
+        super(isMin, priorities.length);
+        priority = priorities.clone();
+        heapify();
+    }
+
+    @Override
+    int compare(int v, int w) {
+        return Double.compare(priority[v], priority[w]);
+    }
+
+    /**
+     * Add v with priority p to the heap.
+     * Throw an IllegalArgumentException if v is already in the heap
+     * or is not in 0..capacity-1.
+     * The worst-case time is logarithmic in the size of the heap.
+     */
+    public void add(int v, double p) throws IllegalArgumentException {
+        checkAbsent(v);
+        priority[v] = p;
+        insert(v);
+    }
+
+    /**
+     * Return the priority of value v.
+     * Throw an IllegalArgumentException if v is not in the heap.
+     */
+    public double priority(int v) {
+        checkPresent(v);
+        return priority[v];
+    }
+
+    /**
+     * Change the priority of value v to p.
+     * The worst-case time is logarithmic in the size of the heap.
+     * Throw an IllegalArgumentException if v is not in the heap.
+     */
+    public void updatePriority(int v, double p) {
+        checkPresent(v);
+        priority[v] = p;
+        reposition(v);
+    }
+}
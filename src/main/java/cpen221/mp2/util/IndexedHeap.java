@@ -0,0 +1,249 @@
+package cpen221.mp2.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * An instance is a min-heap or a max-heap of distinct values 0..capacity-1.
+ * <p>
+ * This is the primitive counterpart of Heap for values that are dense handles,
+ * such as vertex indices: positions are kept in an array indexed by value, so no
+ * operation hashes, boxes or allocates once the heap is constructed. Subclasses
+ * keep the priorities in a primitive array of their own type and compare them.
+ */
+public abstract class IndexedHeap {
+
+    /**
+     * Class Invariant:
+     * 1. d[0..size-1] represents a complete binary tree. d[0] is the root;
+     * For each k, d[2k+1] and d[2k+2] are the left and right children of d[k].
+     * If k != 0, d[(k-1)/2] (using integer division) is the parent of d[k].
+     * <p>
+     * 2. The values in d[0..size-1] are all different.
+     * <p>
+     * 3. For k in 1..size-1,
+     * if isMinHeap, (d[k]'s priority) >= (d[k]'s parent's priority),
+     * otherwise,    (d[k]'s priority) <= (d[k]'s parent's priority).
+     * <p>
+     * position and the tree are in sync, meaning:
+     * <p>
+     * 4. if value v is in d[k], then position[v] == k, and
+     * position[v] == -1 for every value v that is not in the heap.
+     */
+    private final boolean isMinHeap;
+    private final int[] d;
+    private final int[] position;
+    private int size;
+
+    /**
+     * Constructor: an empty heap for the values 0..capacity-1.
+     * It is a min-heap if isMin is true, a max-heap if isMin is false.
+     */
+    IndexedHeap(boolean isMin, int capacity) {
+        isMinHeap = isMin;
+        d = new int[capacity];
+        position = new int[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    /**
+     * Compare the priorities of two values.
+     *
+     * @return a negative number, zero or a positive number as the priority of v
+     * is less than, equal to or greater than the priority of w
+     */
+    abstract int compare(int v, int w);
+
+    /**
+     * Put every value 0..capacity-1 in the heap, bottom-up in linear time.
+     * Precondition: the heap is empty and every value has its priority.
+     */
+    void heapify() {
+        size = d.length;
+        for (int v = 0; v < size; v++) {
+            d[v] = v;
+            position[v] = v;
+        }
+        for (int k = size / 2 - 1; k >= 0; k--) {
+            bubbleDown(k);
+        }
+    }
+
+    /**
+     * Throw an IllegalArgumentException if v is already in the heap
+     * or is not in 0..capacity-1.
+     */
+    void checkAbsent(int v) {
+        if (v < 0 || v >= position.length) {
+            throw new IllegalArgumentException(v + " is not a value of this heap");
+        }
+        if (position[v] >= 0) {
+            throw new IllegalArgumentException("v is already in the heap");
+        }
+    }
+
+    /**
+     * Throw an IllegalArgumentException if v is not in the heap.
+     */
+    void checkPresent(int v) {
+        if (!contains(v)) {
+            throw new IllegalArgumentException("v is not in the priority queue");
+        }
+    }
+
+    /**
+     * Add v to the heap.
+     * Precondition: v is not in the heap and has its priority.
+     * The worst-case time is logarithmic in the size of the heap.
+     */
+    void insert(int v) {
+        d[size] = v;
+        position[v] = size;
+        size = size + 1;
+        bubbleUp(size - 1);
+    }
+
+    /**
+     * Move v to its right place after its priority changed.
+     * Precondition: v is in the heap.
+     * The worst-case time is logarithmic in the size of the heap.
+     */
+    void reposition(int v) {
+        bubbleUp(position[v]);
+        bubbleDown(position[v]);
+    }
+
+    /**
+     * Return the size of this heap.
+     * This operation takes constant time.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Return true iff v is in the heap.
+     * This operation takes constant time.
+     */
+    public boolean contains(int v) {
+        return v >= 0 && v < position.length && position[v] >= 0;
+    }
+
+    /**
+     * Remove every value from the heap.
+     * The time is linear in the size of the heap, not its capacity.
+     */
+    public void clear() {
+        for (int k = 0; k < size; k++) {
+            position[d[k]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Swap d[h] and d[k].
+     * Precondition: 0 <= h < heap-size, 0 <= k < heap-size.
+     */
+    private void swap(int h, int k) {
+        int temp = d[h];
+        d[h] = d[k];
+        d[k] = temp;
+        position[d[h]] = h;
+        position[d[k]] = k;
+    }
+
+    /**
+     * If value v should be above value w in the heap, return a positive number.
+     * If their priorities are the same, return 0.
+     * If value v should be below value w in the heap, return a negative number.
+     */
+    private int compareTo(int v, int w) {
+        int c = compare(v, w);
+        return isMinHeap ? -c : c;
+    }
+
+    /**
+     * Bubble d[k] up the heap to its right place.
+     * Precondition: 0 <= k < size and
+     * The class invariant is true, except perhaps
+     * that d[k] belongs above its parent (if k > 0)
+     * in the heap, not below it.
+     */
+    private void bubbleUp(int k) {
+        while (k > 0) {
+            int p = (k - 1) / 2; // p is k's parent
+            if (compareTo(d[k], d[p]) <= 0) {
+                return;
+            }
+            swap(k, p);
+            k = p;
+        }
+    }
+
+    /**
+     * If this is a min-heap, return the heap value with lowest priority.
+     * If this is a max-heap, return the heap value with highest priority
+     * Do not change the heap. This operation takes constant time.
+     * Throw a NoSuchElementException if the heap is empty.
+     */
+    public int peek() {
+        if (size <= 0) {
+            throw new NoSuchElementException("heap is empty");
+        }
+        return d[0];
+    }
+
+    /**
+     * Bubble d[k] down in heap until it finds the right place.
+     * If there is a choice to bubble down to both the left and
+     * right children (because their priorities are equal), choose
+     * the right child.
+     * Precondition: 0 <= k < size   and
+     * Class invariant is true except that perhaps
+     * d[k] belongs below one or both of its children.
+     */
+    private void bubbleDown(int k) {
+        while (2 * k + 1 < size) { // while d[k] has a child
+            int uc = upperChild(k);
+            if (compareTo(d[k], d[uc]) >= 0) {
+                return;
+            }
+            swap(k, uc);
+            k = uc;
+        }
+    }
+
+    /**
+     * Return the index of the child of d[n] that must appear above the other,
+     * the right one if their priorities are the same.
+     * Precondition: d[n] has at least one child.
+     */
+    private int upperChild(int n) {
+        int lc = 2 * n + 1;
+        if (size == lc + 1) {
+            return lc;
+        }
+        return compareTo(d[lc], d[lc + 1]) > 0 ? lc : lc + 1;
+    }
+
+    /**
+     * If this is a min-heap, remove and return heap value with lowest priority.
+     * If this is a max-heap, remove and return heap value with highest priority.
+     * The worst-case time is logarithmic in the size of the heap.
+     * Throw a NoSuchElementException if the heap is empty.
+     */
+    public int poll() {
+        if (size <= 0) {
+            throw new NoSuchElementException("heap is empty");
+        }
+
+        int v = d[0];
+        swap(0, size - 1);
+        position[v] = -1;
+        size = size - 1;
+        if (size > 0) {
+            bubbleDown(0);
+        }
+        return v;
+    }
+}
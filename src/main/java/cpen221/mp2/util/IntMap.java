@@ -0,0 +1,148 @@
+package cpen221.mp2.util;
+
+import java.util.Arrays;
+
+/**
+ * An instance maps int keys to non-null values of type T. Keys are stored
+ * unboxed in an open-addressing table with linear probing, so lookups do not
+ * allocate.
+ */
+public class IntMap<T> {
+
+    /**
+     * Class Invariant:
+     * 1. keys.length == values.length and is a power of two.
+     * <p>
+     * 2. values[k] == null iff slot k is empty; keys[k] is meaningless for empty slots.
+     * <p>
+     * 3. If key x is in slot k, every slot from home(x) up to k (wrapping around)
+     * is occupied.
+     * <p>
+     * 4. size is the number of occupied slots, and size <= keys.length * 3 / 4.
+     */
+    private int[] keys;
+    private Object[] values;
+    private int size;
+
+    /**
+     * Constructor: an empty map.
+     */
+    public IntMap() {
+        keys = new int[16];
+        values = new Object[16];
+    }
+
+    /**
+     * Return the number of keys in this map.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Return the slot that key x hashes to.
+     */
+    private int home(int x) {
+        int h = x * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (keys.length - 1);
+    }
+
+    /**
+     * Return the slot holding key x, or the empty slot where x would go.
+     */
+    private int find(int x) {
+        int slot = home(x);
+        while (values[slot] != null && keys[slot] != x) {
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        return slot;
+    }
+
+    /**
+     * Return the value mapped to key x, or null if x is not in this map.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int x) {
+        return (T) values[find(x)];
+    }
+
+    /**
+     * Return true iff key x is in this map.
+     */
+    public boolean containsKey(int x) {
+        return values[find(x)] != null;
+    }
+
+    /**
+     * Map key x to value, replacing any previous value.
+     * Throw an IllegalArgumentException if value is null.
+     */
+    public void put(int x, T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("value cannot be null");
+        }
+        int slot = find(x);
+        if (values[slot] == null) {
+            if ((size + 1) * 4 > keys.length * 3) {
+                grow();
+                slot = find(x);
+            }
+            size++;
+        }
+        keys[slot] = x;
+        values[slot] = value;
+    }
+
+    /**
+     * Remove key x and return its value, or return null if x is not in this map.
+     */
+    @SuppressWarnings("unchecked")
+    public T remove(int x) {
+        int slot = find(x);
+        T old = (T) values[slot];
+        if (old == null) {
+            return null;
+        }
+        values[slot] = null;
+        size--;
+        // shift later entries of the probe run back so invariant 3 still holds
+        int mask = keys.length - 1;
+        int next = (slot + 1) & mask;
+        while (values[next] != null) {
+            int h = home(keys[next]);
+            if (((next - h) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                values[next] = null;
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        return old;
+    }
+
+    /**
+     * Remove every key from this map.
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Double the table size and reinsert every entry.
+     */
+    private void grow() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new Object[oldValues.length * 2];
+        for (int k = 0; k < oldKeys.length; k++) {
+            if (oldValues[k] != null) {
+                int slot = find(oldKeys[k]);
+                keys[slot] = oldKeys[k];
+                values[slot] = oldValues[k];
+            }
+        }
+    }
+}
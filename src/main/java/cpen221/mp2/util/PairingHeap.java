@@ -0,0 +1,199 @@
+package cpen221.mp2.util;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A PriorityQueue of the values 0..capacity-1 kept in a pairing heap.
+ * <p>
+ * The heap is a tree in which every value's priority is at least its parent's.
+ * add and a lowered priority simply link a tree to the root in constant time;
+ * poll removes the root and pairs up its children, taking amortised logarithmic
+ * time. Raising a priority takes the value out and links it in again. The tree is
+ * stored in arrays indexed by value, so there is no allocation after construction,
+ * and priorities need not be monotone.
+ */
+public class PairingHeap implements PriorityQueue {
+
+    /**
+     * Class Invariant:
+     * 1. v is in the heap iff inHeap[v], and size is the number of such values.
+     * The tree of values in the heap is rooted at root, which is -1 iff size == 0.
+     * <p>
+     * 2. The children of a value v form a list starting at child[v] and linked
+     * through sibling; prev[w] is w's previous sibling, or its parent if w is
+     * the first child. -1 ends a list, and prev[root] == sibling[root] == -1.
+     * <p>
+     * 3. For every value w in the heap with parent v, priority[w] >= priority[v].
+     */
+    private final int[] priority;
+    private final int[] child;
+    private final int[] sibling;
+    private final int[] prev;
+    private final boolean[] inHeap;
+    private int root = -1;
+    private int size;
+
+    /**
+     * Constructor: an empty heap for the values 0..capacity-1.
+     */
+    public PairingHeap(int capacity) {
+        priority = new int[capacity];
+        child = new int[capacity];
+        sibling = new int[capacity];
+        prev = new int[capacity];
+        inHeap = new boolean[capacity];
+    }
+
+    @Override
+    public void add(int v, int p) {
+        if (v < 0 || v >= inHeap.length) {
+            throw new IllegalArgumentException(v + " is not a value of this queue");
+        }
+        if (inHeap[v]) {
+            throw new IllegalArgumentException("v is already in the queue");
+        }
+        inHeap[v] = true;
+        priority[v] = p;
+        child[v] = -1;
+        sibling[v] = -1;
+        prev[v] = -1;
+        root = root < 0 ? v : link(root, v);
+        size++;
+    }
+
+    @Override
+    public int peek() {
+        if (size <= 0) {
+            throw new NoSuchElementException("queue is empty");
+        }
+        return root;
+    }
+
+    @Override
+    public int poll() {
+        int v = peek();
+        root = mergePairs(child[v]);
+        inHeap[v] = false;
+        size--;
+        return v;
+    }
+
+    @Override
+    public void updatePriority(int v, int p) {
+        if (!contains(v)) {
+            throw new IllegalArgumentException("v is not in the priority queue");
+        }
+        int oldP = priority[v];
+        priority[v] = p;
+        if (p < oldP) {
+            if (v != root) {
+                //v's subtree stays a valid heap, so it can move to the root list whole
+                cut(v);
+                root = link(root, v);
+            }
+        } else if (p > oldP) {
+            //v's children may now belong above it, so take v out alone and add it back
+            int children = mergePairs(child[v]);
+            child[v] = -1;
+            if (v == root) {
+                root = children;
+            } else {
+                cut(v);
+                if (children >= 0) {
+                    root = link(root, children);
+                }
+            }
+            root = root < 0 ? v : link(root, v);
+        }
+    }
+
+    @Override
+    public boolean contains(int v) {
+        return v >= 0 && v < inHeap.length && inHeap[v];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Make the root with the larger priority the first child of the other.
+     * Precondition: a and b are roots of separate trees, with no siblings.
+     *
+     * @return the root of the combined tree
+     */
+    private int link(int a, int b) {
+        if (priority[b] < priority[a]) {
+            int temp = a;
+            a = b;
+            b = temp;
+        }
+        sibling[b] = child[a];
+        if (child[a] >= 0) {
+            prev[child[a]] = b;
+        }
+        prev[b] = a;
+        child[a] = b;
+        return a;
+    }
+
+    /**
+     * Take the subtree rooted at v out of its parent's list of children.
+     * Precondition: v is in the heap and is not the root.
+     */
+    private void cut(int v) {
+        if (child[prev[v]] == v) {
+            child[prev[v]] = sibling[v];
+        } else {
+            sibling[prev[v]] = sibling[v];
+        }
+        if (sibling[v] >= 0) {
+            prev[sibling[v]] = prev[v];
+        }
+        sibling[v] = -1;
+        prev[v] = -1;
+    }
+
+    /**
+     * Combine a list of sibling trees into one tree: link them in pairs from left
+     * to right, then link the pairs from right to left.
+     *
+     * @param first the first tree of the list, or -1 for an empty list
+     * @return the root of the combined tree, or -1 if the list is empty
+     */
+    private int mergePairs(int first) {
+        if (first < 0) {
+            return -1;
+        }
+        //first pass, the linked pairs are chained through sibling in reverse order
+        int pairs = -1;
+        int a = first;
+        while (a >= 0) {
+            int b = sibling[a];
+            int next = b >= 0 ? sibling[b] : -1;
+            sibling[a] = -1;
+            int pair = a;
+            if (b >= 0) {
+                sibling[b] = -1;
+                pair = link(a, b);
+            }
+            sibling[pair] = pairs;
+            pairs = pair;
+            a = next;
+        }
+
+        //second pass, fold the pairs into the last one
+        int result = pairs;
+        int rest = sibling[result];
+        sibling[result] = -1;
+        while (rest >= 0) {
+            int next = sibling[rest];
+            sibling[rest] = -1;
+            result = link(result, rest);
+            rest = next;
+        }
+        prev[result] = -1;
+        return result;
+    }
+}
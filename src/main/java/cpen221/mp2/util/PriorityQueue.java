@@ -0,0 +1,53 @@
+package cpen221.mp2.util;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A min-priority queue of distinct values 0..capacity-1 with int priorities.
+ * The values are dense handles such as vertex indices, so implementations can
+ * keep their bookkeeping in arrays instead of maps.
+ * <p>
+ * Implementations may require the queue to be used monotonically: while the
+ * queue is not empty, no value is added or given a priority below the priority
+ * of the last value polled. Dijkstra's algorithm with non-negative edge lengths
+ * always uses its queue this way.
+ */
+public interface PriorityQueue {
+
+    /**
+     * Add v with priority p to the queue.
+     * Throw an IllegalArgumentException if v is already in the queue,
+     * is not a value of this queue, or p is not allowed at this point.
+     */
+    void add(int v, int p);
+
+    /**
+     * Return the value with the lowest priority without removing it.
+     * If several values share the lowest priority, any one of them may be returned.
+     * Throw a NoSuchElementException if the queue is empty.
+     */
+    int peek() throws NoSuchElementException;
+
+    /**
+     * Remove and return the value with the lowest priority, the value peek() returns.
+     * Throw a NoSuchElementException if the queue is empty.
+     */
+    int poll() throws NoSuchElementException;
+
+    /**
+     * Change the priority of value v to p.
+     * Throw an IllegalArgumentException if v is not in the queue
+     * or p is not allowed at this point.
+     */
+    void updatePriority(int v, int p);
+
+    /**
+     * Return true iff v is in the queue.
+     */
+    boolean contains(int v);
+
+    /**
+     * Return the number of values in the queue.
+     */
+    int size();
+}
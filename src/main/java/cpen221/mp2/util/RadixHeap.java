@@ -0,0 +1,184 @@
+package cpen221.mp2.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A monotone PriorityQueue of the values 0..capacity-1 with non-negative int
+ * priorities (a radix heap).
+ * <p>
+ * Values are kept in 32 buckets by how far their priority is from the priority
+ * last polled: bucket 0 holds the values with exactly that priority, and bucket
+ * i > 0 the values whose priority first differs from it in bit i-1. Polling from
+ * an empty bucket 0 finds the smallest priority in the lowest non-empty bucket,
+ * makes it the new last priority and spreads that bucket over lower buckets.
+ * A value only ever moves to lower buckets, so add and updatePriority take
+ * constant time and poll takes amortised O(log C) time, where C is the
+ * largest priority, with no allocation after construction.
+ * <p>
+ * The queue must be used monotonically: while it is not empty, no value may be
+ * added or given a priority below the last priority polled. Negative priorities
+ * are never allowed.
+ */
+public class RadixHeap implements PriorityQueue {
+
+    /**
+     * Class Invariant:
+     * 1. v is in the queue iff bucket[v] >= 0, and size is the number of such values.
+     * <p>
+     * 2. For every v in the queue, last <= priority[v] and
+     * bucket[v] == bucketOf(priority[v]).
+     * <p>
+     * 3. The values with bucket[v] == b form a list starting at head[b], linked
+     * forwards through next and backwards through prev; -1 ends a list and
+     * marks an empty bucket.
+     */
+    private static final int BUCKETS = 32;
+    private final int[] priority;
+    private final int[] bucket;
+    private final int[] next;
+    private final int[] prev;
+    private final int[] head = new int[BUCKETS];
+    private int last;
+    private int size;
+
+    /**
+     * Constructor: an empty queue for the values 0..capacity-1.
+     */
+    public RadixHeap(int capacity) {
+        priority = new int[capacity];
+        bucket = new int[capacity];
+        next = new int[capacity];
+        prev = new int[capacity];
+        Arrays.fill(bucket, -1);
+        Arrays.fill(head, -1);
+    }
+
+    /**
+     * Return the bucket a value with priority p belongs in.
+     * Precondition: last <= p.
+     */
+    private int bucketOf(int p) {
+        return p == last ? 0 : Integer.SIZE - Integer.numberOfLeadingZeros(p ^ last);
+    }
+
+    /**
+     * Put v at the front of bucket b.
+     */
+    private void link(int v, int b) {
+        bucket[v] = b;
+        prev[v] = -1;
+        next[v] = head[b];
+        if (head[b] >= 0) {
+            prev[head[b]] = v;
+        }
+        head[b] = v;
+    }
+
+    /**
+     * Take v out of its bucket.
+     */
+    private void unlink(int v) {
+        if (prev[v] >= 0) {
+            next[prev[v]] = next[v];
+        } else {
+            head[bucket[v]] = next[v];
+        }
+        if (next[v] >= 0) {
+            prev[next[v]] = prev[v];
+        }
+        bucket[v] = -1;
+    }
+
+    /**
+     * Check that p is a valid priority for a value added or updated now.
+     */
+    private void checkPriority(int p) {
+        if (p < last) {
+            throw new IllegalArgumentException("priority " + p + " is below the last polled priority " + last);
+        }
+    }
+
+    @Override
+    public void add(int v, int p) {
+        if (v < 0 || v >= bucket.length) {
+            throw new IllegalArgumentException(v + " is not a value of this queue");
+        }
+        if (bucket[v] >= 0) {
+            throw new IllegalArgumentException("v is already in the queue");
+        }
+        if (size == 0 && p >= 0 && p < last) {
+            //an empty queue can restart from a lower priority
+            last = p;
+        }
+        checkPriority(p);
+        priority[v] = p;
+        link(v, bucketOf(p));
+        size++;
+    }
+
+    @Override
+    public void updatePriority(int v, int p) {
+        if (!contains(v)) {
+            throw new IllegalArgumentException("v is not in the priority queue");
+        }
+        checkPriority(p);
+        unlink(v);
+        priority[v] = p;
+        link(v, bucketOf(p));
+    }
+
+    /**
+     * Make sure bucket 0 holds the values with the lowest priority.
+     * Precondition: the queue is not empty.
+     */
+    private void refill() {
+        if (head[0] >= 0) {
+            return;
+        }
+        int b = 1;
+        while (head[b] < 0) {
+            b++;
+        }
+        int min = Integer.MAX_VALUE;
+        for (int v = head[b]; v >= 0; v = next[v]) {
+            min = Math.min(min, priority[v]);
+        }
+        last = min;
+
+        int v = head[b];
+        head[b] = -1;
+        while (v >= 0) {
+            int following = next[v];
+            link(v, bucketOf(priority[v]));
+            v = following;
+        }
+    }
+
+    @Override
+    public int peek() {
+        if (size <= 0) {
+            throw new NoSuchElementException("queue is empty");
+        }
+        refill();
+        return head[0];
+    }
+
+    @Override
+    public int poll() {
+        int v = peek();
+        unlink(v);
+        size--;
+        return v;
+    }
+
+    @Override
+    public boolean contains(int v) {
+        return v >= 0 && v < bucket.length && bucket[v] >= 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -451,4 +451,105 @@ public class ALGraphTest {
         assertEquals(ver2,ver);
     }
 
+    @Test
+    public void testViews() {
+        Vertex v1 = new Vertex(1, "A");
+        Vertex v2 = new Vertex(2, "B");
+        Vertex v3 = new Vertex(3, "C");
+
+        Edge<Vertex> e1 = new Edge<>(v1, v2, 5);
+        Edge<Vertex> e2 = new Edge<>(v2, v3, 7);
+
+        MGraph<Vertex, Edge<Vertex>> g = new ALGraph<>(true);
+        g.addVertex(v1);
+        g.addVertex(v2);
+        g.addVertex(v3);
+        g.addEdge(e1);
+
+        Set<Vertex> vertices = g.allVertices();
+        Set<Edge<Vertex>> edges = g.allEdges();
+        Set<Edge<Vertex>> incident = g.allEdges(v2);
+        Map<Vertex, Edge<Vertex>> neighbours = g.getNeighbours(v2);
+
+        assertEquals(Set.of(v1, v2, v3), vertices);
+        assertEquals(Set.of(e1), edges);
+        assertEquals(Map.of(v1, e1), neighbours);
+        assertSame(e1, neighbours.get(v1));
+
+        g.addEdge(e2);
+        assertEquals(Set.of(e1, e2), edges);
+        assertEquals(Set.of(e1, e2), incident);
+        assertEquals(Map.of(v1, e1, v3, e2), neighbours);
+
+        g.remove(e1);
+        assertEquals(Set.of(e2), edges);
+        assertEquals(Map.of(v3, e2), neighbours);
+
+        assertThrows(UnsupportedOperationException.class, () -> vertices.remove(v1));
+        assertThrows(UnsupportedOperationException.class, () -> edges.clear());
+        assertThrows(UnsupportedOperationException.class, () -> incident.add(e1));
+        assertThrows(UnsupportedOperationException.class, () -> neighbours.remove(v3));
+        assertTrue(g.edge(v2, v3));
+    }
+
+    @Test
+    public void testVertexById() {
+        Vertex v1 = new Vertex(1, "A");
+        Vertex v2 = new Vertex(2, "B");
+        Vertex twin = new Vertex(2, "C");
+
+        ALGraph<Vertex, Edge<Vertex>> g = new ALGraph<>();
+        assertTrue(g.addVertex(v1));
+        assertTrue(g.addVertex(v2));
+        assertFalse(g.addVertex(twin));
+
+        assertEquals(v1, g.vertexById(1));
+        assertEquals(v2, g.vertexById(2));
+        assertEquals(null, g.vertexById(3));
+
+        g.remove(v2);
+        assertEquals(null, g.vertexById(2));
+        assertTrue(g.addVertex(twin));
+        assertEquals(twin, g.vertexById(2));
+    }
+
+    @Test
+    public void testFrozen() {
+        Vertex v1 = new Vertex(1, "A");
+        Vertex v2 = new Vertex(2, "B");
+        Vertex v3 = new Vertex(3, "C");
+        v1.freeze();
+        v2.freeze();
+
+        Edge<Vertex> e1 = new Edge<>(v1, v2, 5);
+        Edge<Vertex> e2 = new Edge<>(v2, v3, 7);
+
+        MGraph<Vertex, Edge<Vertex>> g = new ALGraph<>();
+        g.addVertex(v1);
+        g.addVertex(v2);
+        g.addVertex(v3);
+        g.addEdge(e1);
+        g.addEdge(e2);
+
+        assertTrue(e1.isFrozen());
+        assertFalse(e2.isFrozen());
+        assertThrows(UnsupportedOperationException.class, () -> v1.updateName("D"));
+        assertEquals("A", v1.name());
+
+        Map<Vertex, Edge<Vertex>> neighbours = g.getNeighbours(v2);
+        for (Vertex v: neighbours.keySet()) {
+            if (v.equals(v1)) {
+                assertSame(v1, v);
+            } else {
+                assertNotSame(v3, v);
+            }
+        }
+        assertSame(e1, neighbours.get(v1));
+        assertNotSame(e2, neighbours.get(v3));
+        assertEquals(e2, neighbours.get(v3));
+        for (Edge<Vertex> edge: g.allEdges(v1)) {
+            assertSame(e1, edge);
+        }
+    }
+
 }
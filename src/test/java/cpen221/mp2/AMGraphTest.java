@@ -5,7 +5,9 @@ import org.junit.jupiter.api.Test;
 import cpen221.mp2.graph.Edge;
 import cpen221.mp2.graph.Vertex;
 
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -395,4 +397,181 @@ public class AMGraphTest {
         Map<Vertex,Edge<Vertex>> ver2 = Map.of();
         assertEquals(ver2,ver);
     }
+    @Test
+    public void testViews() {
+        Vertex v1 = new Vertex(1, "A");
+        Vertex v2 = new Vertex(2, "B");
+        Vertex v3 = new Vertex(3, "C");
+
+        Edge<Vertex> e1 = new Edge<>(v1, v2, 5);
+        Edge<Vertex> e2 = new Edge<>(v2, v3, 7);
+
+        MGraph<Vertex, Edge<Vertex>> g = new AMGraph<>(10, true);
+        g.addVertex(v1);
+        g.addVertex(v2);
+        g.addVertex(v3);
+        g.addEdge(e1);
+
+        Set<Vertex> vertices = g.allVertices();
+        Set<Edge<Vertex>> edges = g.allEdges();
+        Set<Edge<Vertex>> incident = g.allEdges(v2);
+        Map<Vertex, Edge<Vertex>> neighbours = g.getNeighbours(v2);
+
+        assertEquals(Set.of(v1, v2, v3), vertices);
+        assertEquals(Set.of(e1), edges);
+        assertEquals(Map.of(v1, e1), neighbours);
+        assertSame(e1, neighbours.get(v1));
+
+        g.addEdge(e2);
+        assertEquals(Set.of(e1, e2), edges);
+        assertEquals(Set.of(e1, e2), incident);
+        assertEquals(Map.of(v1, e1, v3, e2), neighbours);
+
+        g.remove(e1);
+        assertEquals(Set.of(e2), edges);
+        assertEquals(Map.of(v3, e2), neighbours);
+
+        assertThrows(UnsupportedOperationException.class, () -> vertices.remove(v1));
+        assertThrows(UnsupportedOperationException.class, () -> edges.clear());
+        assertThrows(UnsupportedOperationException.class, () -> incident.add(e1));
+        assertThrows(UnsupportedOperationException.class, () -> neighbours.remove(v3));
+        assertTrue(g.edge(v2, v3));
+    }
+
+    @Test
+    public void testViewsAfterRemove() {
+        Vertex v1 = new Vertex(1, "A");
+        Vertex v2 = new Vertex(2, "B");
+        Vertex v3 = new Vertex(3, "C");
+        Vertex v4 = new Vertex(4, "D");
+
+        Edge<Vertex> e1 = new Edge<>(v1, v2, 5);
+        Edge<Vertex> e2 = new Edge<>(v3, v4, 7);
+        Edge<Vertex> e3 = new Edge<>(v4, v2, 2);
+
+        MGraph<Vertex, Edge<Vertex>> g = new AMGraph<>(4, true);
+        g.addVertex(v1);
+        g.addVertex(v2);
+        g.addVertex(v3);
+        g.addVertex(v4);
+        g.addEdge(e1);
+        g.addEdge(e2);
+        g.addEdge(e3);
+
+        Map<Vertex, Edge<Vertex>> removedNeighbours = g.getNeighbours(v1);
+        Set<Edge<Vertex>> removedIncident = g.allEdges(v1);
+        Map<Vertex, Edge<Vertex>> movedNeighbours = g.getNeighbours(v4);
+        Set<Edge<Vertex>> movedIncident = g.allEdges(v4);
+
+        //v4 moves into the index v1 leaves
+        assertTrue(g.remove(v1));
+        assertTrue(removedNeighbours.isEmpty());
+        assertNull(removedNeighbours.get(v2));
+        assertTrue(removedIncident.isEmpty());
+        assertFalse(removedIncident.contains(e1));
+        assertEquals(Map.of(v3, e2, v2, e3), movedNeighbours);
+        assertEquals(Set.of(e2, e3), movedIncident);
+        assertEquals(Map.of(v4, e3), g.getNeighbours(v2));
+    }
+
+    @Test
+    public void testVertexById() {
+        Vertex v1 = new Vertex(1, "A");
+        Vertex v2 = new Vertex(2, "B");
+        Vertex twin = new Vertex(2, "C");
+
+        AMGraph<Vertex, Edge<Vertex>> g = new AMGraph<>(10);
+        assertTrue(g.addVertex(v1));
+        assertTrue(g.addVertex(v2));
+        assertFalse(g.addVertex(twin));
+
+        assertEquals(v1, g.vertexById(1));
+        assertEquals(v2, g.vertexById(2));
+        assertEquals(null, g.vertexById(3));
+
+        g.remove(v2);
+        assertEquals(null, g.vertexById(2));
+        assertTrue(g.addVertex(twin));
+        assertEquals(twin, g.vertexById(2));
+    }
+
+    @Test
+    public void testFrozen() {
+        Vertex v1 = new Vertex(1, "A");
+        Vertex v2 = new Vertex(2, "B");
+        Vertex v3 = new Vertex(3, "C");
+        v1.freeze();
+        v2.freeze();
+
+        Edge<Vertex> e1 = new Edge<>(v1, v2, 5);
+        Edge<Vertex> e2 = new Edge<>(v2, v3, 7);
+
+        MGraph<Vertex, Edge<Vertex>> g = new AMGraph<>(10);
+        g.addVertex(v1);
+        g.addVertex(v2);
+        g.addVertex(v3);
+        g.addEdge(e1);
+        g.addEdge(e2);
+
+        assertTrue(e1.isFrozen());
+        assertFalse(e2.isFrozen());
+        assertThrows(UnsupportedOperationException.class, () -> v1.updateName("D"));
+        assertEquals("A", v1.name());
+
+        Map<Vertex, Edge<Vertex>> neighbours = g.getNeighbours(v2);
+        for (Vertex v: neighbours.keySet()) {
+            if (v.equals(v1)) {
+                assertSame(v1, v);
+            } else {
+                assertNotSame(v3, v);
+            }
+        }
+        assertSame(e1, neighbours.get(v1));
+        assertNotSame(e2, neighbours.get(v3));
+        assertEquals(e2, neighbours.get(v3));
+        for (Edge<Vertex> edge: g.allEdges(v1)) {
+            assertSame(e1, edge);
+        }
+    }
+
+    @Test
+    public void testGrowAndRemoveVertex() {
+        Random r = new Random(7);
+        MGraph<Vertex, Edge<Vertex>> g = new AMGraph<>();
+        MGraph<Vertex, Edge<Vertex>> expected = new ALGraph<>();
+        Vertex[] vertices = new Vertex[70];
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = new Vertex(i, "v" + i);
+            assertTrue(g.addVertex(vertices[i]));
+            expected.addVertex(vertices[i]);
+        }
+        for (int k = 0; k < 600; k++) {
+            Edge<Vertex> edge = new Edge<>(vertices[r.nextInt(35)], vertices[35 + r.nextInt(35)], r.nextInt(50));
+            assertEquals(expected.addEdge(edge), g.addEdge(edge));
+        }
+        assertEquals(expected.allEdges(), g.allEdges());
+
+        for (int k = 0; k < 30; k++) {
+            Vertex v = vertices[r.nextInt(vertices.length)];
+            assertEquals(expected.remove(v), g.remove(v));
+            assertEquals(expected.allVertices(), g.allVertices());
+            assertEquals(expected.allEdges(), g.allEdges());
+            assertEquals(expected.allEdges().size(), g.allEdges().size());
+            assertEquals(expected.edgeLengthSum(), g.edgeLengthSum());
+        }
+        for (Vertex v: expected.allVertices()) {
+            assertEquals(expected.getNeighbours(v), g.getNeighbours(v));
+            assertEquals(new HashSet<>(expected.allEdges(v)), g.allEdges(v));
+            assertEquals(v, g.vertexById(v.id()));
+        }
+
+        Vertex added = new Vertex(100, "new");
+        assertTrue(g.addVertex(added));
+        assertTrue(g.getNeighbours(added).isEmpty());
+        Vertex other = expected.allVertices().iterator().next();
+        assertTrue(g.addEdge(new Edge<>(added, other, 3)));
+        assertEquals(3, g.edgeLength(other, added));
+        assertThrows(IllegalArgumentException.class, () -> new AMGraph<>(0));
+    }
+
 }
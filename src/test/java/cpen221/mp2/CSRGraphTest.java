@@ -0,0 +1,117 @@
+package cpen221.mp2;
+
+import cpen221.mp2.graph.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CSRGraphTest {
+
+    private static Vertex v1 = new Vertex(1, "A");
+    private static Vertex v2 = new Vertex(2, "B");
+    private static Vertex v3 = new Vertex(3, "C");
+    private static Vertex v4 = new Vertex(4, "D");
+    private static Vertex v5 = new Vertex(5, "E");
+    private static Vertex v6 = new Vertex(6, "F");
+
+    private static Edge<Vertex> e1 = new Edge<>(v1, v2, 6);
+    private static Edge<Vertex> e2 = new Edge<>(v1, v4, 1);
+    private static Edge<Vertex> e3 = new Edge<>(v2, v3, 5);
+    private static Edge<Vertex> e4 = new Edge<>(v2, v4, 2);
+    private static Edge<Vertex> e5 = new Edge<>(v2, v5, 3);
+    private static Edge<Vertex> e6 = new Edge<>(v3, v5, 7);
+    private static Edge<Vertex> e7 = new Edge<>(v4, v5, 4);
+
+    private static Graph<Vertex, Edge<Vertex>> source() {
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+        g.addVertex(v1);
+        g.addVertex(v2);
+        g.addVertex(v3);
+        g.addVertex(v4);
+        g.addVertex(v5);
+        g.addEdge(e1);
+        g.addEdge(e2);
+        g.addEdge(e3);
+        g.addEdge(e4);
+        g.addEdge(e5);
+        g.addEdge(e6);
+        g.addEdge(e7);
+        return g;
+    }
+
+    private static CSRGraph<Vertex, Edge<Vertex>> freeze(MGraph<Vertex, Edge<Vertex>> g) {
+        return new CSRGraph.CSRGraphBuilder<Vertex, Edge<Vertex>>().graph(g).build();
+    }
+
+    @Test
+    public void testStructure() {
+        CSRGraph<Vertex, Edge<Vertex>> g = freeze(source());
+
+        assertEquals(5, g.vertexCount());
+        assertEquals(7, g.edgeCount());
+        assertTrue(g.vertex(v3));
+        assertFalse(g.vertex(v6));
+        assertTrue(g.edge(v5, v3));
+        assertFalse(g.edge(v1, v3));
+        assertEquals(e6, g.getEdge(v5, v3));
+        assertEquals(7, g.getEdge(v3, v5).length());
+    }
+
+    @Test
+    public void testShortestPaths() {
+        CSRGraph<Vertex, Edge<Vertex>> g = freeze(source());
+
+        assertEquals(List.of(v1), g.shortestPath(v1, v1));
+        assertEquals(List.of(v1, v4, v2), g.shortestPath(v1, v2));
+        assertEquals(8, g.pathLength(g.shortestPath(v1, v3)));
+        assertEquals(5, g.pathLength(g.shortestPath(v1, v5)));
+
+        assertEquals(Map.of(v4, e2), g.getNeighbours(v1, 1));
+        assertEquals(Map.of(v2, e4, v4, e2), g.getNeighbours(v1, 3));
+        assertEquals(Map.of(v2, e4, v4, e2, v5, e7), g.getNeighbours(v1, 5));
+    }
+
+    @Test
+    public void testHeuristicPaths() {
+        Graph<Vertex, Edge<Vertex>> original = source();
+        CSRGraph<Vertex, Edge<Vertex>> g = freeze(original);
+
+        assertEquals(List.of(v1, v4, v2), g.shortestPath(v1, v2, v -> 0));
+        assertEquals(List.of(v1, v4, v2), g.shortestPath(v1, v2, v -> original.distance(v, v2)));
+        assertEquals(g.shortestPath(v1, v3), g.shortestPath(v1, v3, v -> original.distance(v, v3) / 2));
+        assertEquals(List.of(v5), g.shortestPath(v5, v5, v -> 0));
+    }
+
+    @Test
+    public void testAgreesWithGraph() {
+        Graph<Vertex, Edge<Vertex>> original = source();
+        original.addVertex(v6);
+        CSRGraph<Vertex, Edge<Vertex>> g = freeze(original);
+
+        assertEquals(original.diameter(), g.diameter());
+        assertEquals(original.getCenter(), g.getCenter());
+        assertEquals(original.minimumSpanningComponents(1), g.minimumSpanningComponents(1));
+        assertEquals(original.minimumSpanningComponents(3), g.minimumSpanningComponents(3));
+    }
+
+    @Test
+    public void testFrozen() {
+        Graph<Vertex, Edge<Vertex>> original = source();
+        CSRGraph<Vertex, Edge<Vertex>> g = freeze(original);
+        original.remove(e2);
+
+        assertTrue(g.edge(v1, v4));
+        assertEquals(1, g.pathLength(g.shortestPath(v1, v4)));
+    }
+
+    @Test
+    public void testUnsetBuilder() {
+        assertThrows(IllegalStateException.class,
+                () -> new CSRGraph.CSRGraphBuilder<Vertex, Edge<Vertex>>().build());
+    }
+}
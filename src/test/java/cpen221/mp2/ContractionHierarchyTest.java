@@ -0,0 +1,86 @@
+package cpen221.mp2;
+
+import cpen221.mp2.graph.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContractionHierarchyTest {
+
+    private static ContractionHierarchy<Vertex, Edge<Vertex>> contract(MGraph<Vertex, Edge<Vertex>> g) {
+        return new ContractionHierarchy.ContractionHierarchyBuilder<Vertex, Edge<Vertex>>().graph(g).build();
+    }
+
+    @Test
+    public void testSmallGraph() {
+        Vertex v1 = new Vertex(1, "A");
+        Vertex v2 = new Vertex(2, "B");
+        Vertex v3 = new Vertex(3, "C");
+        Vertex v4 = new Vertex(4, "D");
+        Vertex v5 = new Vertex(5, "E");
+
+        Edge<Vertex> e1 = new Edge<>(v1, v2, 1);
+        Edge<Vertex> e2 = new Edge<>(v2, v3, 1);
+        Edge<Vertex> e3 = new Edge<>(v3, v4, 1);
+        Edge<Vertex> e4 = new Edge<>(v1, v4, 5);
+
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+        g.addVertex(v1);
+        g.addVertex(v2);
+        g.addVertex(v3);
+        g.addVertex(v4);
+        g.addVertex(v5);
+        g.addEdge(e1);
+        g.addEdge(e2);
+        g.addEdge(e3);
+        g.addEdge(e4);
+
+        ContractionHierarchy<Vertex, Edge<Vertex>> ch = contract(g);
+        assertEquals(5, ch.vertexCount());
+        assertEquals(3, ch.distance(v1, v4));
+        assertEquals(List.of(v1, v2, v3, v4), ch.shortestPath(v1, v4));
+        assertEquals(List.of(v4, v3, v2, v1), ch.shortestPath(v4, v1));
+        assertEquals(List.of(e1, e2, e3), ch.shortestPathEdges(v1, v4));
+        assertEquals(List.of(v2), ch.shortestPath(v2, v2));
+        assertEquals(List.of(), ch.shortestPathEdges(v2, v2));
+
+        assertEquals(Integer.MAX_VALUE, ch.distance(v1, v5));
+        assertThrows(IllegalArgumentException.class, () -> ch.shortestPath(v1, v5));
+        assertThrows(IllegalArgumentException.class, () -> ch.distance(v1, new Vertex(6, "F")));
+    }
+
+    @Test
+    public void testAgreesWithGraph() {
+        for (int seed = 0; seed < 10; seed++) {
+            Vertex[] vertices = new Vertex[60];
+            Graph<Vertex, Edge<Vertex>> g = GraphTest.randomGraph(seed, vertices, vertices.length, 0, 19);
+
+            ContractionHierarchy<Vertex, Edge<Vertex>> ch = contract(g);
+            for (Vertex source: vertices) {
+                for (Vertex sink: vertices) {
+                    int length = g.distance(source, sink);
+                    assertEquals(length, ch.distance(source, sink));
+
+                    List<Vertex> path = ch.shortestPath(source, sink);
+                    assertEquals(source, path.get(0));
+                    assertEquals(sink, path.get(path.size() - 1));
+                    assertEquals(length, g.pathLength(path));
+
+                    List<Edge<Vertex>> edges = ch.shortestPathEdges(source, sink);
+                    assertEquals(path.size() - 1, edges.size());
+                    for (int i = 0; i < edges.size(); i++) {
+                        assertEquals(g.getEdge(path.get(i), path.get(i + 1)), edges.get(i));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testUnsetBuilder() {
+        assertThrows(IllegalStateException.class,
+                () -> new ContractionHierarchy.ContractionHierarchyBuilder<Vertex, Edge<Vertex>>().build());
+    }
+}
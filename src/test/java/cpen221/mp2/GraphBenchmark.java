@@ -0,0 +1,429 @@
+package cpen221.mp2;
+
+import cpen221.mp2.graph.ALGraph;
+import cpen221.mp2.graph.CSRGraph;
+import cpen221.mp2.graph.ContractionHierarchy;
+import cpen221.mp2.graph.Edge;
+import cpen221.mp2.graph.Graph;
+import cpen221.mp2.graph.LandmarkIndex;
+import cpen221.mp2.graph.MGraph;
+import cpen221.mp2.graph.Vertex;
+import cpen221.mp2.initialization.DelaunayTriangulation;
+import cpen221.mp2.initialization.UEdge;
+import cpen221.mp2.models.Link;
+import cpen221.mp2.models.Planet;
+import cpen221.mp2.models.Universe;
+import cpen221.mp2.util.BucketQueue;
+import cpen221.mp2.util.DaryHeap;
+import cpen221.mp2.util.HeapQueue;
+import cpen221.mp2.util.PairingHeap;
+import cpen221.mp2.util.PriorityQueue;
+import cpen221.mp2.util.RadixHeap;
+import cpen221.mp2.util.Util;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Stand-alone benchmarks for the graph package. These are not JUnit tests;
+ * run main with the name of a benchmark followed by the graph sizes of interest,
+ * e.g. "memory 10000 100000 1000000", and a heap large enough for the biggest
+ * graph (-Xmx4g for a million vertices). The benchmarks are:
+ * <ul>
+ * <li>memory: retained heap of an ALGraph and of the CSRGraph built from it</li>
+ * <li>center: time of Graph.getCenter() with 1, 2, 4, ... worker threads,
+ * up to the number of available processors</li>
+ * <li>bounding: diameter and center of Delaunay universes with the ALL_SOURCES and
+ * BOUNDING eccentricity strategies; ALL_SOURCES is skipped above 5,000 vertices</li>
+ * <li>bidirectional: time of random point-to-point shortestPath queries on grid graphs
+ * with the SINGLE_SOURCE and BIDIRECTIONAL path strategies</li>
+ * <li>routes: preprocessing time of a ContractionHierarchy over a Delaunay universe,
+ * and the time of random queries against it and against Graph</li>
+ * <li>landmarks: build time of a 16-landmark LandmarkIndex over a grid graph with each
+ * selection, and the time of random A* queries with and without its heuristic</li>
+ * <li>queues: time of full single-source searches on a Delaunay universe with each
+ * Graph.QueueStrategy</li>
+ * <li>universes: decrease-key heavy workloads from generated Universes of the given
+ * number of planets (at most 1,398): Dijkstra's algorithm from every planet run straight
+ * against each util.PriorityQueue, then diameter() with each Graph.QueueStrategy</li>
+ * </ul>
+ */
+public class GraphBenchmark {
+
+    public static void main(String[] args) {
+        String benchmark = args.length == 0 ? "memory" : args[0];
+        int[] sizes = args.length < 2 ? new int[] {10_000, 100_000, 1_000_000} : new int[args.length - 1];
+        for (int i = 1; i < args.length; i++) {
+            sizes[i - 1] = Integer.parseInt(args[i]);
+        }
+        for (int n: sizes) {
+            switch (benchmark) {
+                case "memory":
+                    memoryFootprint(n);
+                    break;
+                case "center":
+                    parallelCenter(n);
+                    break;
+                case "bounding":
+                    boundingEccentricities(n);
+                    break;
+                case "bidirectional":
+                    bidirectionalPaths(n);
+                    break;
+                case "routes":
+                    contractionHierarchy(n);
+                    break;
+                case "landmarks":
+                    landmarkSearch(n);
+                    break;
+                case "queues":
+                    queueStrategies(n);
+                    break;
+                case "universes":
+                    universeQueues(n);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown benchmark " + benchmark);
+            }
+        }
+    }
+
+    /**
+     * Build a connected, planar-like graph with n vertices: a square grid where
+     * each vertex links to its right and lower neighbours and, at random, to its
+     * lower-right neighbour. Lengths are random in 1..100.
+     *
+     * @param n the number of vertices, n > 0
+     * @param graph an empty graph to fill
+     * @return graph, filled
+     */
+    static <G extends MGraph<Vertex, Edge<Vertex>>> G gridGraph(int n, G graph) {
+        Random r = new Random(n);
+        int side = (int) Math.ceil(Math.sqrt(n));
+        Vertex[] vertices = new Vertex[n];
+        for (int i = 0; i < n; i++) {
+            vertices[i] = new Vertex(i, "v" + i);
+            graph.addVertex(vertices[i]);
+        }
+        for (int i = 0; i < n; i++) {
+            int right = i + 1;
+            int down = i + side;
+            if (right % side != 0 && right < n) {
+                graph.addEdge(new Edge<>(vertices[i], vertices[right], 1 + r.nextInt(100)));
+            }
+            if (down < n) {
+                graph.addEdge(new Edge<>(vertices[i], vertices[down], 1 + r.nextInt(100)));
+            }
+            if (right % side != 0 && down + 1 < n && r.nextBoolean()) {
+                graph.addEdge(new Edge<>(vertices[i], vertices[down + 1], 1 + r.nextInt(100)));
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Print the retained heap size of an ALGraph and of the CSRGraph built from it.
+     * The ALGraph hands out its stored vertices and edges, so the CSRGraph figure
+     * is only the cost of its arrays.
+     */
+    static void memoryFootprint(int n) {
+        long before = usedHeap();
+        ALGraph<Vertex, Edge<Vertex>> adjacencyList = gridGraph(n, new ALGraph<>(true));
+        long listBytes = usedHeap() - before;
+
+        before = usedHeap();
+        CSRGraph<Vertex, Edge<Vertex>> csr = new CSRGraph.CSRGraphBuilder<Vertex, Edge<Vertex>>()
+                .graph(adjacencyList).build();
+        long csrBytes = usedHeap() - before;
+
+        System.out.printf("n = %,d, m = %,d: ALGraph %,d bytes (%.1f per vertex), CSRGraph %,d bytes (%.1f per vertex)%n",
+                csr.vertexCount(), csr.edgeCount(), listBytes, (double) listBytes / n,
+                csrBytes, (double) csrBytes / n);
+    }
+
+    /**
+     * Print the time getCenter() takes on an n-vertex grid graph for increasing parallelism.
+     */
+    static void parallelCenter(int n) {
+        Graph<Vertex, Edge<Vertex>> graph = gridGraph(n, new Graph<>());
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int parallelism = 1; parallelism <= processors; parallelism *= 2) {
+            graph.setParallelism(parallelism);
+            long start = System.nanoTime();
+            Vertex center = graph.getCenter();
+            System.out.printf("n = %,d, parallelism %d: center %s in %.3f s%n",
+                    n, parallelism, center.name(), (System.nanoTime() - start) / 1e9);
+        }
+    }
+
+    /**
+     * Build a Delaunay universe with n vertices at the planet density of the game board,
+     * with edge lengths computed the way Link computes them.
+     */
+    static Graph<Vertex, Edge<Vertex>> delaunayGraph(int n) {
+        int side = (int) (4096 * Math.sqrt(n / 750.0));
+        DelaunayTriangulation dt = new DelaunayTriangulation(n, new Random(n), side, side);
+        Graph<Vertex, Edge<Vertex>> graph = new Graph<>();
+        Map<Point, Vertex> vertices = new HashMap<>();
+        for (Point p: dt.getVertices()) {
+            Vertex v = new Vertex(vertices.size(), p.x + "," + p.y);
+            vertices.put(p, v);
+            graph.addVertex(v);
+        }
+        for (UEdge e: dt.getEdges()) {
+            double distance = Util.distance(e.p1().x, e.p1().y, e.p2().x, e.p2().y);
+            int length = distance <= 1 ? 1 : (int) distance;
+            graph.addEdge(new Edge<>(vertices.get(e.p1()), vertices.get(e.p2()), length));
+        }
+        return graph;
+    }
+
+    /**
+     * Print the time diameter() and getCenter() take with each eccentricity strategy.
+     */
+    static void boundingEccentricities(int n) {
+        Graph<Vertex, Edge<Vertex>> graph = delaunayGraph(n);
+        for (Graph.EccentricityStrategy strategy: Graph.EccentricityStrategy.values()) {
+            if (strategy == Graph.EccentricityStrategy.ALL_SOURCES && n > 5_000) {
+                System.out.printf("n = %,d, %s: skipped%n", n, strategy);
+                continue;
+            }
+            graph.setEccentricityStrategy(strategy);
+            long start = System.nanoTime();
+            int diameter = graph.diameter();
+            double diameterTime = (System.nanoTime() - start) / 1e9;
+            start = System.nanoTime();
+            Vertex center = graph.getCenter();
+            double centerTime = (System.nanoTime() - start) / 1e9;
+            System.out.printf("n = %,d, %s: diameter %d in %.3f s, center %s in %.3f s%n",
+                    n, strategy, diameter, diameterTime, center.name(), centerTime);
+        }
+    }
+
+    /**
+     * Print the time 100 random shortestPath queries take with each path strategy.
+     */
+    static void bidirectionalPaths(int n) {
+        Graph<Vertex, Edge<Vertex>> graph = gridGraph(n, new Graph<>());
+        for (Graph.PathStrategy strategy: Graph.PathStrategy.values()) {
+            graph.setPathStrategy(strategy);
+            Random r = new Random(n);
+            long total = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < 100; i++) {
+                Vertex source = graph.vertexById(r.nextInt(n));
+                Vertex sink = graph.vertexById(r.nextInt(n));
+                total += graph.pathLength(graph.shortestPath(source, sink));
+            }
+            System.out.printf("n = %,d, %s: total length %d in %.3f s%n",
+                    n, strategy, total, (System.nanoTime() - start) / 1e9);
+        }
+    }
+
+    /**
+     * Print the preprocessing time of a contraction hierarchy, and the average time of
+     * 10,000 random distance queries against it and of 100 against a bidirectional Graph.
+     */
+    static void contractionHierarchy(int n) {
+        Graph<Vertex, Edge<Vertex>> graph = delaunayGraph(n);
+        long start = System.nanoTime();
+        ContractionHierarchy<Vertex, Edge<Vertex>> routes =
+                new ContractionHierarchy.ContractionHierarchyBuilder<Vertex, Edge<Vertex>>().graph(graph).build();
+        System.out.printf("n = %,d: preprocessing %.3f s, %,d shortcuts%n",
+                n, (System.nanoTime() - start) / 1e9, routes.shortcutCount());
+
+        Random r = new Random(n);
+        start = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) {
+            routes.distance(graph.vertexById(r.nextInt(n)), graph.vertexById(r.nextInt(n)));
+        }
+        double routesTime = (System.nanoTime() - start) / 1e4;
+
+        graph.setPathStrategy(Graph.PathStrategy.BIDIRECTIONAL);
+        start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            graph.shortestPath(graph.vertexById(r.nextInt(n)), graph.vertexById(r.nextInt(n)));
+        }
+        double graphTime = (System.nanoTime() - start) / 1e2;
+        System.out.printf("n = %,d: ContractionHierarchy %.1f us per query, Graph %.1f us per query%n",
+                n, routesTime / 1e3, graphTime / 1e3);
+    }
+
+    /**
+     * Print the time 100 random A* queries take on an n-vertex grid graph with no
+     * heuristic and with the heuristic of a LandmarkIndex built with each selection.
+     */
+    static void landmarkSearch(int n) {
+        Graph<Vertex, Edge<Vertex>> graph = gridGraph(n, new Graph<>());
+        int processors = Runtime.getRuntime().availableProcessors();
+        System.out.printf("n = %,d, no landmarks: %.3f s%n", n, timeQueries(graph, null));
+        for (LandmarkIndex.Selection selection: LandmarkIndex.Selection.values()) {
+            long start = System.nanoTime();
+            LandmarkIndex<Vertex, Edge<Vertex>> index = new LandmarkIndex.LandmarkIndexBuilder<Vertex, Edge<Vertex>>()
+                    .graph(graph).landmarks(16).selection(selection).parallelism(processors).build();
+            double buildTime = (System.nanoTime() - start) / 1e9;
+            System.out.printf("n = %,d, %s: built in %.3f s, queries %.3f s%n",
+                    n, selection, buildTime, timeQueries(graph, index));
+        }
+    }
+
+    /**
+     * @return the time in seconds of 100 random A* queries, guided by index if it is not null
+     */
+    private static double timeQueries(Graph<Vertex, Edge<Vertex>> graph, LandmarkIndex<Vertex, Edge<Vertex>> index) {
+        Random r = new Random(graph.allVertices().size());
+        int n = graph.allVertices().size();
+        long start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            Vertex source = graph.vertexById(r.nextInt(n));
+            Vertex sink = graph.vertexById(r.nextInt(n));
+            graph.shortestPath(source, sink, index == null ? v -> 0 : index.heuristic(sink));
+        }
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    /**
+     * Print the time of 200 searches that settle every vertex of a Delaunay universe,
+     * for each queue strategy. The first round only warms up the JIT.
+     */
+    static void queueStrategies(int n) {
+        Graph<Vertex, Edge<Vertex>> graph = delaunayGraph(n);
+        for (int round = 0; round < 2; round++) {
+            for (Graph.QueueStrategy strategy: Graph.QueueStrategy.values()) {
+                graph.setQueueStrategy(strategy);
+                Random r = new Random(n);
+                long start = System.nanoTime();
+                for (int i = 0; i < 200; i++) {
+                    Vertex source = graph.vertexById(r.nextInt(n));
+                    graph.getNeighbours(source, Integer.MAX_VALUE);
+                }
+                if (round > 0) {
+                    System.out.printf("n = %,d, %s: %.3f s%n", n, strategy, (System.nanoTime() - start) / 1e9);
+                }
+            }
+        }
+    }
+
+    /**
+     * For three generated Universes with n planets, print the time of a Dijkstra search
+     * from every planet with each PriorityQueue, the number of queue operations and
+     * the share of them that lower a priority, and the time of diameter() with each
+     * Graph.QueueStrategy. The first round of each only warms up the JIT.
+     */
+    static void universeQueues(int n) {
+        for (long seed = 1; seed <= 3; seed++) {
+            Universe universe = new Universe.UniverseBuilder().size(4096, 4096).seed(seed)
+                    .planetBounds(n, n).spiceBounds(0, 5000).build();
+            Graph<Planet, Link> graph = new Graph<>();
+            Map<Planet, Integer> index = new HashMap<>();
+            for (Planet planet: universe.planets()) {
+                index.put(planet, index.size());
+                graph.addVertex(planet);
+            }
+            int[] offsets = new int[index.size() + 1];
+            for (Link link: universe.links()) {
+                offsets[index.get(link.v1()) + 1]++;
+                offsets[index.get(link.v2()) + 1]++;
+                graph.addEdge(link);
+            }
+            int longest = 0;
+            for (int v = 0; v < index.size(); v++) {
+                offsets[v + 1] += offsets[v];
+            }
+            int[] fill = Arrays.copyOf(offsets, index.size());
+            int[] neighbours = new int[offsets[index.size()]];
+            int[] weights = new int[neighbours.length];
+            for (Link link: universe.links()) {
+                int i = index.get(link.v1());
+                int j = index.get(link.v2());
+                neighbours[fill[i]] = j;
+                weights[fill[i]++] = link.length();
+                neighbours[fill[j]] = i;
+                weights[fill[j]++] = link.length();
+                longest = Math.max(longest, link.length());
+            }
+
+            int capacity = index.size();
+            int spread = longest;
+            Map<String, Supplier<PriorityQueue>> queues = new LinkedHashMap<>();
+            queues.put("binary heap", HeapQueue::new);
+            queues.put("4-ary heap", () -> new DaryHeap(capacity));
+            queues.put("pairing heap", () -> new PairingHeap(capacity));
+            queues.put("radix heap", () -> new RadixHeap(capacity));
+            queues.put("buckets", () -> new BucketQueue(capacity, spread));
+            for (int round = 0; round < 2; round++) {
+                for (Map.Entry<String, Supplier<PriorityQueue>> queue: queues.entrySet()) {
+                    long start = System.nanoTime();
+                    long[] counts = new long[3];
+                    for (int source = 0; source < capacity; source++) {
+                        replayDijkstra(offsets, neighbours, weights, source, queue.getValue().get(), counts);
+                    }
+                    if (round > 0) {
+                        System.out.printf("seed %d, %,d planets, %s: %.3f s, %,d operations, %.1f%% decrease-key%n",
+                                seed, capacity, queue.getKey(), (System.nanoTime() - start) / 1e9,
+                                counts[0] + counts[1] + counts[2], 100.0 * counts[1] / (counts[0] + counts[1] + counts[2]));
+                    }
+                }
+            }
+            for (int round = 0; round < 2; round++) {
+                for (Graph.QueueStrategy strategy: Graph.QueueStrategy.values()) {
+                    graph.setQueueStrategy(strategy);
+                    long start = System.nanoTime();
+                    int diameter = graph.diameter();
+                    if (round > 0) {
+                        System.out.printf("seed %d, %,d planets, Graph %s: diameter %d in %.3f s%n",
+                                seed, capacity, strategy, diameter, (System.nanoTime() - start) / 1e9);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Run Dijkstra's algorithm over row arrays with the given queue.
+     *
+     * @param counts incremented with the number of adds, priority updates and polls
+     */
+    private static void replayDijkstra(int[] offsets, int[] neighbours, int[] weights, int source,
+                                       PriorityQueue frontier, long[] counts) {
+        int[] distance = new int[offsets.length - 1];
+        Arrays.fill(distance, Integer.MAX_VALUE);
+        boolean[] settled = new boolean[distance.length];
+        distance[source] = 0;
+        frontier.add(source, 0);
+        counts[0]++;
+        while (frontier.size() > 0) {
+            int current = frontier.poll();
+            counts[2]++;
+            settled[current] = true;
+            for (int slot = offsets[current]; slot < offsets[current + 1]; slot++) {
+                int next = neighbours[slot];
+                int newLength = distance[current] + weights[slot];
+                if (settled[next] || newLength >= distance[next]) {
+                    continue;
+                }
+                if (distance[next] == Integer.MAX_VALUE) {
+                    frontier.add(next, newLength);
+                    counts[0]++;
+                } else {
+                    frontier.updatePriority(next, newLength);
+                    counts[1]++;
+                }
+                distance[next] = newLength;
+            }
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -1,20 +1,65 @@
 package cpen221.mp2;
 
+import cpen221.mp2.graph.CSRGraph;
+import cpen221.mp2.graph.DijkstraIterator;
 import cpen221.mp2.graph.Edge;
 import cpen221.mp2.graph.Graph;
 import cpen221.mp2.graph.ImGraph;
+import cpen221.mp2.graph.ShortestPathTree;
 import cpen221.mp2.graph.Vertex;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class GraphTest {
 
+    /**
+     * Build a random graph on fresh vertices with ids 0 to vertices.length - 1.
+     * Each of the vertices 1 to connected - 1 is joined to two random earlier
+     * vertices, so the first connected vertices form one component and the rest
+     * are isolated.
+     *
+     * @param seed the seed for the edge choices and lengths
+     * @param vertices the array to fill with the new vertices
+     * @param connected the number of vertices that receive edges
+     * @param minLength the shortest edge length
+     * @param maxLength the longest edge length
+     * @return the new graph
+     */
+    static Graph<Vertex, Edge<Vertex>> randomGraph(long seed, Vertex[] vertices, int connected,
+                                                   int minLength, int maxLength) {
+        Random r = new Random(seed);
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = new Vertex(i, "v" + i);
+            g.addVertex(vertices[i]);
+        }
+        for (int i = 1; i < connected; i++) {
+            for (int k = 0; k < 2; k++) {
+                Vertex other = vertices[r.nextInt(i)];
+                if (!g.edge(vertices[i], other)) {
+                    g.addEdge(new Edge<>(vertices[i], other, minLength + r.nextInt(maxLength - minLength + 1)));
+                }
+            }
+        }
+        return g;
+    }
+
     @Test
     public void testCreateGraph() {
         Vertex v1 = new Vertex(1, "A");
@@ -39,6 +84,84 @@ public class GraphTest {
         assertEquals(21, g.pathLength(g.shortestPath(v3, v4)));
     }
 
+    @Test
+    public void testGetEdgeAndPathLengthByIds() {
+        Vertex v1 = new Vertex(1, "A");
+        Vertex v2 = new Vertex(2, "B");
+        Vertex v3 = new Vertex(3, "C");
+        Vertex v4 = new Vertex(4, "D");
+
+        Edge<Vertex> e1 = new Edge<>(v1, v2, 5);
+        Edge<Vertex> e2 = new Edge<>(v2, v3, 7);
+        Edge<Vertex> e3 = new Edge<>(v1, v4, 9);
+        v2.freeze();
+        v3.freeze();
+
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+        g.addVertex(v1);
+        g.addVertex(v2);
+        g.addVertex(v3);
+        g.addVertex(v4);
+        g.addEdge(e1);
+        g.addEdge(e2);
+        g.addEdge(e3);
+
+        assertSame(e2, g.getEdge(v2, v3));
+        assertSame(e2, g.getEdge(v3, v2));
+        assertNotSame(e1, g.getEdge(v1, v2));
+        assertEquals(e1, g.getEdge(v1, v2));
+        assertThrows(IllegalArgumentException.class, () -> g.getEdge(v3, v4));
+
+        assertEquals(21, g.pathLength(new int[]{3, 2, 1, 4}));
+        assertEquals(0, g.pathLength(new int[]{3}));
+        assertEquals(0, g.pathLength(new int[0]));
+        assertThrows(IllegalArgumentException.class, () -> g.pathLength(new int[]{3, 4}));
+        assertThrows(IllegalArgumentException.class, () -> g.pathLength(new int[]{3, 5}));
+    }
+
+    @Test
+    public void testRenameReturnedVertex() {
+        Vertex v1 = new Vertex(1, "A");
+        Vertex v2 = new Vertex(2, "B");
+        Vertex v3 = new Vertex(3, "C");
+        v3.freeze();
+
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+        g.addVertex(v1);
+        g.addVertex(v2);
+        g.addVertex(v3);
+        g.addEdge(new Edge<>(v1, v2, 4));
+        g.addEdge(new Edge<>(v2, v3, 6));
+
+        for (Vertex v: g.allVertices()) {
+            if (v.equals(v3)) {
+                assertSame(v3, v);
+            } else {
+                v.updateName("renamed");
+            }
+        }
+        for (Vertex v: g.shortestPath(v1, v3)) {
+            if (!v.isFrozen()) {
+                v.updateName("renamed");
+            }
+        }
+        for (Edge<Vertex> e: g.allEdges()) {
+            if (!e.isFrozen()) {
+                e.v1().updateName("renamed");
+            }
+        }
+        g.getNeighbours(v2).keySet().iterator().next().updateName("renamed");
+        g.vertexById(1).updateName("renamed");
+
+        assertTrue(g.vertex(v1));
+        assertTrue(g.vertex(v2));
+        assertTrue(g.vertex(v3));
+        assertTrue(g.edge(v1, v2));
+        assertEquals(Set.of(v1, v2, v3), g.allVertices());
+        assertEquals(List.of(v1, v2, v3), g.shortestPath(v1, v3));
+        assertEquals("A", g.vertexById(1).name());
+    }
+
     @Test
     public void testMultiplePaths() {
         //https://www.youtube.com/watch?v=pVfj6mxhdMw
@@ -146,6 +269,165 @@ public class GraphTest {
         assertEquals(Map.of(v2, e4, v3, e2, v4, e6, v5, e8, v6, e12, v7, e11, v8, e13), g.getNeighbours(v1, 12));
     }
 
+    @Test
+    public void testNearest() {
+        Vertex v1 = new Vertex(1, "A");
+        Vertex v2 = new Vertex(2, "B");
+        Vertex v3 = new Vertex(3, "C");
+        Vertex v4 = new Vertex(4, "D");
+        Vertex v5 = new Vertex(5, "E");
+        Vertex v6 = new Vertex(6, "F");
+
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+        g.addVertex(v1);
+        g.addVertex(v2);
+        g.addVertex(v3);
+        g.addVertex(v4);
+        g.addVertex(v5);
+        g.addVertex(v6);
+        g.addEdge(new Edge<>(v1, v2, 8));
+        g.addEdge(new Edge<>(v1, v3, 2));
+        g.addEdge(new Edge<>(v3, v4, 2));
+        g.addEdge(new Edge<>(v4, v5, 1));
+        g.addEdge(new Edge<>(v2, v4, 2));
+
+        assertEquals(List.of(v3, v4, v5), g.nearest(v1, 3, v -> true));
+        assertEquals(List.of(v4, v2), g.nearest(v1, 5, v -> v.id() % 2 == 0));
+        assertEquals(List.of(v2), g.nearest(v5, 1, v -> v.name().equals("B")));
+        assertEquals(List.of(), g.nearest(v6, 2, v -> true));
+        assertEquals(List.of(), g.nearest(v1, 0, v -> true));
+
+        //the search stops at the first match
+        List<Vertex> tested = new ArrayList<>();
+        g.nearest(v1, 1, v -> tested.add(v));
+        assertEquals(List.of(v3), tested);
+        assertThrows(IllegalArgumentException.class, () -> g.nearest(v1, -1, v -> true));
+    }
+
+    @Test
+    public void testNeighboursDisconnected() {
+        Vertex v1 = new Vertex(1, "A");
+        Vertex v2 = new Vertex(2, "B");
+        Vertex v3 = new Vertex(3, "C");
+        Vertex v4 = new Vertex(4, "D");
+
+        Edge<Vertex> e1 = new Edge<>(v1, v2, 3);
+        Edge<Vertex> e2 = new Edge<>(v2, v3, 4);
+
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+        g.addVertex(v1);
+        g.addVertex(v2);
+        g.addVertex(v3);
+        g.addVertex(v4);
+        g.addEdge(e1);
+        g.addEdge(e2);
+
+        assertEquals(Map.of(), g.getNeighbours(v1, 0));
+        assertEquals(Map.of(v2, e1), g.getNeighbours(v1, 6));
+        assertEquals(Map.of(v2, e1, v3, e2), g.getNeighbours(v1, 100));
+        assertEquals(Map.of(), g.getNeighbours(v4, 100));
+    }
+
+    @Test
+    public void testDistanceCache() {
+        Vertex v1 = new Vertex(1, "A");
+        Vertex v2 = new Vertex(2, "B");
+        Vertex v3 = new Vertex(3, "C");
+        Vertex v4 = new Vertex(4, "D");
+
+        Edge<Vertex> e1 = new Edge<>(v1, v2, 5);
+        Edge<Vertex> e2 = new Edge<>(v2, v3, 7);
+        Edge<Vertex> e3 = new Edge<>(v3, v4, 9);
+        Edge<Vertex> e4 = new Edge<>(v1, v4, 2);
+
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+        g.cacheDistances(true);
+        g.addVertex(v1);
+        g.addVertex(v2);
+        g.addVertex(v3);
+        g.addVertex(v4);
+        g.addEdge(e1);
+        g.addEdge(e2);
+        g.addEdge(e3);
+
+        assertEquals(List.of(v1, v2, v3, v4), g.shortestPath(v1, v4));
+        assertEquals(21, g.distance(v1, v4));
+        assertEquals(21, g.diameter());
+
+        g.addEdge(e4);
+        assertEquals(List.of(v1, v4), g.shortestPath(v1, v4));
+        assertEquals(2, g.distance(v1, v4));
+        assertEquals(List.of(v3, v4, v1), g.shortestPath(v3, v1));
+
+        g.remove(e4);
+        assertEquals(21, g.distance(v4, v1));
+        assertEquals(v3, g.getCenter());
+
+        Vertex v5 = new Vertex(5, "E");
+        g.addVertex(v5);
+        assertEquals(Integer.MAX_VALUE, g.distance(v1, v5));
+        assertThrows(IllegalArgumentException.class, () -> g.shortestPath(v1, v5));
+        assertThrows(IllegalArgumentException.class, () -> g.shortestPath(v5, v4));
+        assertEquals(List.of(v5), g.shortestPath(v5, v5));
+
+        g.cacheDistances(false);
+        assertEquals(List.of(v4, v3, v2, v1), g.shortestPath(v4, v1));
+        assertEquals(12, g.distance(v3, v1));
+        assertThrows(IllegalArgumentException.class, () -> g.shortestPath(v1, v5));
+    }
+
+    @Test
+    public void testTreeCache() {
+        Vertex v1 = new Vertex(1, "A");
+        Vertex v2 = new Vertex(2, "B");
+        Vertex v3 = new Vertex(3, "C");
+        Vertex v4 = new Vertex(4, "D");
+
+        Edge<Vertex> e1 = new Edge<>(v1, v2, 5);
+        Edge<Vertex> e2 = new Edge<>(v2, v3, 7);
+        Edge<Vertex> e3 = new Edge<>(v3, v4, 9);
+        Edge<Vertex> e4 = new Edge<>(v1, v4, 2);
+
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+        g.cacheTrees(2, Long.MAX_VALUE);
+        g.setPathStrategy(Graph.PathStrategy.BIDIRECTIONAL);
+        g.addVertex(v1);
+        g.addVertex(v2);
+        g.addVertex(v3);
+        g.addVertex(v4);
+        g.addEdge(e1);
+        g.addEdge(e2);
+        g.addEdge(e3);
+
+        assertEquals(List.of(v1, v2, v3, v4), g.shortestPath(v1, v4));
+        assertEquals(12, g.distance(v1, v3));
+        assertEquals(Map.of(v2, e1), g.getNeighbours(v1, 10));
+        assertEquals(2, g.treeCacheHits());
+        assertEquals(1, g.treeCacheMisses());
+
+        //v1 is least recently used once v2 and v3 are cached
+        g.shortestPath(v2, v4);
+        g.shortestPath(v3, v1);
+        g.shortestPath(v1, v2);
+        assertEquals(2, g.treeCacheHits());
+        assertEquals(4, g.treeCacheMisses());
+
+        g.addEdge(e4);
+        assertEquals(List.of(v1, v4), g.shortestPath(v1, v4));
+        assertEquals(5, g.treeCacheMisses());
+
+        g.cacheTrees(10, 0);
+        assertEquals(0, g.treeCacheMisses());
+        assertEquals(9, g.distance(v1, v3) - g.distance(v1, v4));
+        assertEquals(0, g.treeCacheHits());
+        assertEquals(2, g.treeCacheMisses());
+
+        g.cacheTrees(0, 0);
+        assertEquals(List.of(v3, v4), g.shortestPath(v3, v4));
+        assertEquals(0, g.treeCacheMisses());
+        assertThrows(IllegalArgumentException.class, () -> g.cacheTrees(-1, 0));
+    }
+
     @Test
     public void testSmallDiameter() {
         Vertex v1 = new Vertex(1, "A");
@@ -206,6 +488,302 @@ public class GraphTest {
 
         assertEquals(11, g.diameter());
         assertEquals(v1, g.getCenter());
+
+        g.setEccentricityStrategy(Graph.EccentricityStrategy.BOUNDING);
+        assertEquals(11, g.diameter());
+        assertEquals(v1, g.getCenter());
+    }
+
+    @Test
+    public void testParallelCenter() {
+        Vertex[] vertices = new Vertex[60];
+        Graph<Vertex, Edge<Vertex>> g = randomGraph(221, vertices, vertices.length, 1, 20);
+
+        int diameter = g.diameter();
+        Vertex center = g.getCenter();
+        g.setParallelism(4);
+        assertEquals(diameter, g.diameter());
+        assertEquals(center, g.getCenter());
+        g.cacheDistances(true);
+        assertEquals(diameter, g.diameter());
+        assertEquals(center, g.getCenter());
+    }
+
+    @Test
+    public void testBoundingStrategy() {
+        for (int seed = 0; seed < 20; seed++) {
+            Vertex[] vertices = new Vertex[40];
+            Graph<Vertex, Edge<Vertex>> g = randomGraph(seed, vertices, vertices.length, 1, 4);
+
+            int diameter = g.diameter();
+            Vertex center = g.getCenter();
+            g.setEccentricityStrategy(Graph.EccentricityStrategy.BOUNDING);
+            assertEquals(diameter, g.diameter());
+            assertEquals(center, g.getCenter());
+        }
+    }
+
+    @Test
+    public void testHeuristicPaths() {
+        Vertex[] vertices = new Vertex[30];
+        Graph<Vertex, Edge<Vertex>> g = randomGraph(10, vertices, vertices.length, 1, 10);
+
+        for (Vertex sink: vertices) {
+            for (Vertex source: vertices) {
+                int length = g.pathLength(g.shortestPath(source, sink));
+                List<Vertex> blind = g.shortestPath(source, sink, v -> 0);
+                List<Vertex> guided = g.shortestPath(source, sink, v -> g.distance(v, sink) / 2);
+                assertEquals(source, guided.get(0));
+                assertEquals(sink, guided.get(guided.size() - 1));
+                assertEquals(length, g.pathLength(blind));
+                assertEquals(length, g.pathLength(guided));
+            }
+        }
+
+        Vertex isolated = new Vertex(30, "v30");
+        g.addVertex(isolated);
+        for (Graph.QueueStrategy strategy: Graph.QueueStrategy.values()) {
+            g.setQueueStrategy(strategy);
+            assertThrows(IllegalArgumentException.class, () -> g.shortestPath(vertices[0], isolated, v -> 0));
+            assertThrows(IllegalArgumentException.class, () -> g.shortestPath(isolated, vertices[0], v -> 0));
+        }
+        assertEquals(List.of(isolated), g.shortestPath(isolated, isolated, v -> 0));
+    }
+
+    @Test
+    public void testBidirectionalPaths() {
+        Vertex[] vertices = new Vertex[30];
+        Graph<Vertex, Edge<Vertex>> g = randomGraph(11, vertices, vertices.length - 1, 0, 9);
+
+        Vertex isolated = vertices[vertices.length - 1];
+        for (Vertex sink: vertices) {
+            for (Vertex source: vertices) {
+                if (source.equals(isolated) != sink.equals(isolated)) {
+                    continue;
+                }
+                g.setPathStrategy(Graph.PathStrategy.SINGLE_SOURCE);
+                int length = g.pathLength(g.shortestPath(source, sink));
+                g.setPathStrategy(Graph.PathStrategy.BIDIRECTIONAL);
+                List<Vertex> path = g.shortestPath(source, sink);
+                assertEquals(source, path.get(0));
+                assertEquals(sink, path.get(path.size() - 1));
+                assertEquals(length, g.pathLength(path));
+            }
+        }
+        assertEquals(List.of(isolated), g.shortestPath(isolated, isolated));
+        assertThrows(IllegalArgumentException.class, () -> g.shortestPath(vertices[0], isolated));
+    }
+
+    @Test
+    public void testShortestPathTree() {
+        Vertex[] vertices = new Vertex[30];
+        Graph<Vertex, Edge<Vertex>> g = randomGraph(17, vertices, vertices.length - 1, 1, 10);
+
+        Vertex isolated = vertices[vertices.length - 1];
+        for (Vertex source: vertices) {
+            ShortestPathTree<Vertex, Edge<Vertex>> tree = g.shortestPathTree(source);
+            assertEquals(source, tree.source());
+            assertNull(tree.lastEdgeTo(source));
+            for (Vertex sink: vertices) {
+                assertEquals(g.distance(source, sink), tree.distanceTo(sink));
+                if (!tree.hasPathTo(sink)) {
+                    assertTrue(source.equals(isolated) != sink.equals(isolated));
+                    assertThrows(IllegalArgumentException.class, () -> tree.pathTo(sink));
+                    assertNull(tree.lastEdgeTo(sink));
+                    continue;
+                }
+                List<Vertex> path = tree.pathTo(sink);
+                assertEquals(source, path.get(0));
+                assertEquals(sink, path.get(path.size() - 1));
+                assertEquals(tree.distanceTo(sink), g.pathLength(path));
+                if (!sink.equals(source)) {
+                    Vertex before = path.get(path.size() - 2);
+                    assertEquals(g.getEdge(before, sink), tree.lastEdgeTo(sink));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testClosestFirst() {
+        Vertex[] vertices = new Vertex[30];
+        Graph<Vertex, Edge<Vertex>> g = randomGraph(19, vertices, vertices.length - 1, 0, 9);
+
+        for (Vertex source: vertices) {
+            DijkstraIterator<Vertex, Edge<Vertex>> search = g.closestFirst(source);
+            //take a few, then resume the same search
+            List<DijkstraIterator.Settled<Vertex, Edge<Vertex>>> settled = new ArrayList<>();
+            search.stream().limit(3).forEach(settled::add);
+            while (search.hasNext()) {
+                int next = search.peekDistance();
+                settled.add(search.next());
+                assertEquals(next, settled.get(settled.size() - 1).distance());
+            }
+
+            assertEquals(source, settled.get(0).vertex());
+            assertNull(settled.get(0).lastEdge());
+            Set<Vertex> seen = new HashSet<>();
+            int last = 0;
+            for (DijkstraIterator.Settled<Vertex, Edge<Vertex>> s: settled) {
+                assertTrue(seen.add(s.vertex()));
+                assertTrue(s.distance() >= last);
+                last = s.distance();
+                assertEquals(g.distance(source, s.vertex()), s.distance());
+                if (s.lastEdge() != null) {
+                    Vertex before = s.lastEdge().distinctVertex(s.vertex());
+                    assertEquals(s.distance(), g.distance(source, before) + s.lastEdge().length());
+                }
+            }
+            int reachable = source.equals(vertices[vertices.length - 1]) ? 1 : vertices.length - 1;
+            assertEquals(reachable, settled.size());
+        }
+
+        DijkstraIterator<Vertex, Edge<Vertex>> search = g.closestFirst(vertices[0]);
+        search.next();
+        g.addEdge(new Edge<>(vertices[0], vertices[vertices.length - 1], 1));
+        assertThrows(ConcurrentModificationException.class, search::next);
+        assertThrows(IllegalArgumentException.class, () -> g.closestFirst(new Vertex(99, "v99")));
+    }
+
+    @Test
+    public void testQueueStrategies() {
+        Vertex[] vertices = new Vertex[40];
+        Graph<Vertex, Edge<Vertex>> g = randomGraph(14, vertices, vertices.length, 0, 29);
+
+        int[][] lengths = new int[vertices.length][vertices.length];
+        for (Vertex source: vertices) {
+            for (Vertex sink: vertices) {
+                lengths[source.id()][sink.id()] = g.pathLength(g.shortestPath(source, sink));
+            }
+        }
+        Map<Vertex, Edge<Vertex>> neighbours = g.getNeighbours(vertices[0], 25);
+        int diameter = g.diameter();
+        Vertex center = g.getCenter();
+        for (Graph.QueueStrategy strategy: Graph.QueueStrategy.values()) {
+            g.setQueueStrategy(strategy);
+            for (Vertex source: vertices) {
+                for (Vertex sink: vertices) {
+                    int length = lengths[source.id()][sink.id()];
+                    g.setPathStrategy(Graph.PathStrategy.SINGLE_SOURCE);
+                    assertEquals(length, g.pathLength(g.shortestPath(source, sink)));
+                    assertEquals(length, g.pathLength(g.shortestPath(source, sink, v -> lengths[v.id()][sink.id()] / 2)));
+                    g.setPathStrategy(Graph.PathStrategy.BIDIRECTIONAL);
+                    assertEquals(length, g.pathLength(g.shortestPath(source, sink)));
+                }
+            }
+            assertEquals(neighbours.keySet(), g.getNeighbours(vertices[0], 25).keySet());
+            g.setParallelism(2);
+            assertEquals(diameter, g.diameter());
+            g.setParallelism(1);
+            g.setEccentricityStrategy(Graph.EccentricityStrategy.BOUNDING);
+            assertEquals(center, g.getCenter());
+            g.setEccentricityStrategy(Graph.EccentricityStrategy.ALL_SOURCES);
+        }
+    }
+
+    @Test
+    public void testStorageStrategies() {
+        Vertex[] vertices = new Vertex[30];
+        Graph<Vertex, Edge<Vertex>> g = randomGraph(23, vertices, vertices.length, 0, 29);
+
+        int[][] lengths = new int[vertices.length][vertices.length];
+        for (Vertex source: vertices) {
+            for (Vertex sink: vertices) {
+                lengths[source.id()][sink.id()] = g.distance(source, sink);
+            }
+        }
+        Set<Edge<Vertex>> edges = new HashSet<>(g.allEdges());
+        int diameter = g.diameter();
+        Vertex center = g.getCenter();
+        Set<Vertex> vertexView = g.allVertices();
+        Set<Edge<Vertex>> edgeView = g.allEdges();
+        Map<Vertex, Edge<Vertex>> neighbourView = g.getNeighbours(vertices[0]);
+        Map<Vertex, Edge<Vertex>> neighbours = new HashMap<>(neighbourView);
+
+        for (Graph.StorageStrategy strategy: Graph.StorageStrategy.values()) {
+            g.setStorageStrategy(strategy);
+            for (Vertex source: vertices) {
+                for (Vertex sink: vertices) {
+                    assertEquals(lengths[source.id()][sink.id()], g.pathLength(g.shortestPath(source, sink)));
+                }
+            }
+            assertEquals(diameter, g.diameter());
+            assertEquals(center, g.getCenter());
+            assertEquals(edges, g.allEdges());
+            assertEquals(edges.size(), g.allEdges().size());
+            assertEquals(vertices.length, vertexView.size());
+            assertEquals(edges, edgeView);
+            assertEquals(neighbours, neighbourView);
+            for (Edge<Vertex> edge: edges) {
+                assertTrue(g.edge(edge.v1(), edge.v2()));
+                assertEquals(edge, g.getEdge(edge.v2(), edge.v1()));
+            }
+            assertNull(neighbourView.get(vertices[vertices.length - 1]));
+        }
+
+        //a frozen graph hands out its own storage as a snapshot
+        g.setStorageStrategy(Graph.StorageStrategy.FROZEN);
+        assertEquals(Graph.StorageStrategy.FROZEN, g.storage());
+        CSRGraph<Vertex, Edge<Vertex>> snapshot = g.frozen();
+        assertSame(snapshot, g.frozen());
+        assertEquals(edges, snapshot.allEdges());
+
+        //a mutation thaws a frozen graph, and the views follow it
+        Edge<Vertex> extra = new Edge<>(vertices[0], vertices[vertices.length - 1], 1);
+        assertTrue(g.addEdge(extra));
+        assertEquals(Graph.StorageStrategy.ADJACENCY_LIST, g.storage());
+        assertEquals(extra, neighbourView.get(vertices[vertices.length - 1]));
+        assertTrue(edgeView.contains(extra));
+        assertTrue(g.frozen().edge(extra.v1(), extra.v2()));
+        assertFalse(snapshot.edge(extra.v1(), extra.v2()));
+        g.shortestPath(vertices[0], vertices[1]);
+        assertEquals(Graph.StorageStrategy.FROZEN, g.storage());
+
+        //a matrix grows, and gives up removed vertices
+        g.setStorageStrategy(Graph.StorageStrategy.ADJACENCY_MATRIX);
+        for (int i = vertices.length; i < 80; i++) {
+            assertTrue(g.addVertex(new Vertex(i, "v" + i)));
+            assertTrue(g.addEdge(new Edge<>(g.vertexById(i), vertices[0], 1)));
+        }
+        assertTrue(g.remove(vertices[5]));
+        assertEquals(79, vertexView.size());
+        assertEquals(Graph.StorageStrategy.ADJACENCY_MATRIX, g.storage());
+        assertEquals(2, g.distance(vertices[vertices.length - 1], g.vertexById(79)));
+    }
+
+    @Test
+    public void testAdaptiveStorage() {
+        Graph<Vertex, Edge<Vertex>> dense = new Graph<>();
+        Vertex[] vertices = new Vertex[10];
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = new Vertex(i, "v" + i);
+            dense.addVertex(vertices[i]);
+            for (int j = 0; j < i; j++) {
+                dense.addEdge(new Edge<>(vertices[i], vertices[j], i + j));
+            }
+        }
+        dense.setStorageStrategy(Graph.StorageStrategy.ADAPTIVE);
+        assertEquals(Graph.StorageStrategy.ADJACENCY_LIST, dense.storage());
+        assertEquals(1, dense.distance(vertices[0], vertices[1]));
+        assertEquals(Graph.StorageStrategy.ADJACENCY_MATRIX, dense.storage());
+
+        Graph<Vertex, Edge<Vertex>> sparse = new Graph<>();
+        for (int i = 0; i < 100; i++) {
+            sparse.addVertex(new Vertex(i, "v" + i));
+            if (i > 0) {
+                sparse.addEdge(new Edge<>(sparse.vertexById(i - 1), sparse.vertexById(i), 2));
+            }
+        }
+        sparse.setStorageStrategy(Graph.StorageStrategy.ADAPTIVE);
+        for (int i = 1; i < 8; i++) {
+            assertEquals(2 * i, sparse.distance(sparse.vertexById(0), sparse.vertexById(i)));
+            assertEquals(Graph.StorageStrategy.ADJACENCY_LIST, sparse.storage());
+        }
+        assertEquals(198, sparse.distance(sparse.vertexById(0), sparse.vertexById(99)));
+        assertEquals(Graph.StorageStrategy.FROZEN, sparse.storage());
+        assertTrue(sparse.remove(sparse.vertexById(50)));
+        assertEquals(Graph.StorageStrategy.ADJACENCY_LIST, sparse.storage());
+        assertEquals(Integer.MAX_VALUE, sparse.distance(sparse.vertexById(0), sparse.vertexById(99)));
     }
 
     @Test
@@ -439,6 +1017,35 @@ public class GraphTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void mstSingletons() {
+        Vertex v1 = new Vertex(1, "A");
+        Vertex v2 = new Vertex(2, "B");
+        Vertex v3 = new Vertex(3, "C");
+
+        Edge<Vertex> e1 = new Edge<>(v1, v2, 2);
+        Edge<Vertex> e2 = new Edge<>(v2, v3, 3);
+        Edge<Vertex> e3 = new Edge<>(v1, v3, 4);
+
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+        g.addVertex(v1);
+        g.addVertex(v2);
+        g.addVertex(v3);
+        g.addEdge(e1);
+        g.addEdge(e2);
+        g.addEdge(e3);
+
+        Set<ImGraph<Vertex, Edge<Vertex>>> expected = new HashSet<>();
+        for (Vertex v: Set.of(v1, v2, v3)) {
+            Graph<Vertex, Edge<Vertex>> single = new Graph<>();
+            single.addVertex(v);
+            expected.add(single);
+        }
+
+        assertEquals(expected, g.minimumSpanningComponents(3));
+        assertEquals(5, ((Graph<Vertex, Edge<Vertex>>) g.minimumSpanningComponents(1).iterator().next()).edgeLengthSum());
+    }
+
     @Test
     public void connectedComponents1() {
         Vertex v1 = new Vertex(1, "A");
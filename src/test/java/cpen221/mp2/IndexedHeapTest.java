@@ -0,0 +1,86 @@
+package cpen221.mp2;
+
+import cpen221.mp2.util.IndexedDoubleHeap;
+import cpen221.mp2.util.IndexedIntHeap;
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IndexedHeapTest {
+
+    private static final int CAPACITY = 300;
+
+    /**
+     * Bulk-build a heap, lower and raise random priorities, and check every poll
+     * returns a best remaining value.
+     */
+    @Test
+    public void testBulkBuildAndUpdates() {
+        for (boolean isMin: new boolean[]{true, false}) {
+            Random r = new Random(11);
+            int[] priority = new int[CAPACITY];
+            for (int v = 0; v < CAPACITY; v++) {
+                priority[v] = r.nextInt(1000);
+            }
+            IndexedIntHeap heap = new IndexedIntHeap(isMin, priority);
+            assertEquals(CAPACITY, heap.size());
+            for (int k = 0; k < CAPACITY; k++) {
+                int v = r.nextInt(CAPACITY);
+                priority[v] = r.nextInt(1000);
+                heap.updatePriority(v, priority[v]);
+            }
+
+            boolean[] polled = new boolean[CAPACITY];
+            while (heap.size() > 0) {
+                int v = heap.poll();
+                assertFalse(heap.contains(v));
+                polled[v] = true;
+                for (int w = 0; w < CAPACITY; w++) {
+                    if (!polled[w]) {
+                        assertTrue(isMin ? priority[w] >= priority[v] : priority[w] <= priority[v]);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDoubleHeap() {
+        IndexedDoubleHeap heap = new IndexedDoubleHeap(true, new double[]{2.5, 0.5, 1.5});
+        heap.updatePriority(0, 0.25);
+        assertEquals(0.25, heap.priority(0));
+        assertEquals(0, heap.poll());
+        heap.add(0, 3.0);
+        assertEquals(1, heap.poll());
+        assertEquals(2, heap.poll());
+        assertEquals(0, heap.poll());
+        assertEquals(0, heap.size());
+
+        IndexedDoubleHeap max = new IndexedDoubleHeap(false, 4);
+        max.add(3, -1.0);
+        max.add(1, 7.0);
+        assertEquals(1, max.peek());
+    }
+
+    @Test
+    public void testClearAndErrors() {
+        IndexedIntHeap heap = new IndexedIntHeap(true, 5);
+        assertThrows(NoSuchElementException.class, heap::poll);
+        assertThrows(NoSuchElementException.class, heap::peek);
+        heap.add(2, 4);
+        heap.add(4, 1);
+        assertThrows(IllegalArgumentException.class, () -> heap.add(2, 0));
+        assertThrows(IllegalArgumentException.class, () -> heap.add(5, 0));
+        assertThrows(IllegalArgumentException.class, () -> heap.updatePriority(3, 0));
+        heap.clear();
+        assertEquals(0, heap.size());
+        assertFalse(heap.contains(4));
+        heap.add(4, 9);
+        heap.add(0, 8);
+        assertEquals(0, heap.poll());
+        assertEquals(4, heap.poll());
+    }
+}
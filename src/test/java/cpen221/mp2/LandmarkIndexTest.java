@@ -0,0 +1,142 @@
+package cpen221.mp2;
+
+import cpen221.mp2.graph.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LandmarkIndexTest {
+
+    private static Graph<Vertex, Edge<Vertex>> randomGraph(int seed, Vertex[] vertices) {
+        Random r = new Random(seed);
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = new Vertex(i, "v" + i);
+            g.addVertex(vertices[i]);
+        }
+        for (int i = 1; i < vertices.length; i++) {
+            for (int k = 0; k < 2; k++) {
+                Vertex other = vertices[r.nextInt(i)];
+                if (!g.edge(vertices[i], other)) {
+                    g.addEdge(new Edge<>(vertices[i], other, r.nextInt(20)));
+                }
+            }
+        }
+        return g;
+    }
+
+    private static LandmarkIndex<Vertex, Edge<Vertex>> index(Graph<Vertex, Edge<Vertex>> g, int k,
+                                                             LandmarkIndex.Selection selection, int parallelism) {
+        return new LandmarkIndex.LandmarkIndexBuilder<Vertex, Edge<Vertex>>()
+                .graph(g).landmarks(k).selection(selection).parallelism(parallelism).build();
+    }
+
+    @Test
+    public void testLowerBounds() {
+        for (LandmarkIndex.Selection selection: LandmarkIndex.Selection.values()) {
+            Vertex[] vertices = new Vertex[40];
+            Graph<Vertex, Edge<Vertex>> g = randomGraph(3, vertices);
+            LandmarkIndex<Vertex, Edge<Vertex>> index = index(g, 4, selection, 1);
+            assertEquals(4, index.landmarks().size());
+
+            for (Vertex sink: vertices) {
+                for (Vertex source: vertices) {
+                    int length = g.distance(source, sink);
+                    assertTrue(index.lowerBound(source, sink) <= length);
+                    assertEquals(index.lowerBound(source, sink), index.heuristic(sink).applyAsInt(source));
+                    assertEquals(length, g.pathLength(g.shortestPath(source, sink, index.heuristic(sink))));
+                }
+            }
+            for (Vertex landmark: index.landmarks()) {
+                for (Vertex v: vertices) {
+                    assertEquals(g.distance(landmark, v), index.lowerBound(landmark, v));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testParallelBuild() {
+        for (LandmarkIndex.Selection selection: LandmarkIndex.Selection.values()) {
+            Vertex[] vertices = new Vertex[60];
+            Graph<Vertex, Edge<Vertex>> g = randomGraph(8, vertices);
+            assertEquals(index(g, 6, selection, 1).landmarks(), index(g, 6, selection, 4).landmarks());
+        }
+    }
+
+    @Test
+    public void testDisconnected() {
+        Vertex v1 = new Vertex(1, "A");
+        Vertex v2 = new Vertex(2, "B");
+        Vertex v3 = new Vertex(3, "C");
+        Vertex v4 = new Vertex(4, "D");
+        Vertex v5 = new Vertex(5, "E");
+
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+        g.addVertex(v1);
+        g.addVertex(v2);
+        g.addVertex(v3);
+        g.addVertex(v4);
+        g.addVertex(v5);
+        g.addEdge(new Edge<>(v1, v2, 3));
+        g.addEdge(new Edge<>(v2, v3, 4));
+        g.addEdge(new Edge<>(v4, v5, 2));
+
+        LandmarkIndex<Vertex, Edge<Vertex>> index = index(g, 2, LandmarkIndex.Selection.FARTHEST, 1);
+        assertEquals(List.of(v3, v5), index.landmarks());
+        assertEquals(7, index.lowerBound(v1, v3));
+        assertEquals(2, index.lowerBound(v5, v4));
+        assertEquals(0, index.lowerBound(v1, v5));
+        assertEquals(0, index.lowerBound(v1, new Vertex(6, "F")));
+
+        assertEquals(Set.copyOf(List.of(v1, v2, v3, v4, v5)),
+                Set.copyOf(index(g, 10, LandmarkIndex.Selection.DEGREE, 1).landmarks()));
+    }
+
+    @Test
+    public void testTwoComponents() {
+        Vertex[] left = new Vertex[30];
+        Graph<Vertex, Edge<Vertex>> g = randomGraph(5, left);
+        Vertex[] right = new Vertex[30];
+        for (int i = 0; i < right.length; i++) {
+            right[i] = new Vertex(left.length + i, "w" + i);
+            g.addVertex(right[i]);
+        }
+        Random r = new Random(6);
+        for (int i = 1; i < right.length; i++) {
+            g.addEdge(new Edge<>(right[i], right[r.nextInt(i)], 1 + r.nextInt(20)));
+        }
+
+        LandmarkIndex<Vertex, Edge<Vertex>> index = index(g, 4, LandmarkIndex.Selection.FARTHEST, 1);
+        List<Vertex> landmarks = index.landmarks();
+        int farthest = 0;
+        for (Vertex v: left) {
+            farthest = Math.max(farthest, g.distance(left[0], v));
+        }
+        //the first landmark is on the edge of the first component, the second in the other one
+        assertEquals(farthest, g.distance(left[0], landmarks.get(0)));
+        assertTrue(landmarks.get(1).id() >= left.length);
+        assertEquals(4, Set.copyOf(landmarks).size());
+
+        for (Vertex[] component: new Vertex[][]{left, right}) {
+            for (Vertex sink: component) {
+                for (Vertex source: component) {
+                    assertTrue(index.lowerBound(source, sink) <= g.distance(source, sink));
+                }
+            }
+            assertTrue(index.lowerBound(component[0], landmarks.get(component == left ? 0 : 1)) > 0);
+        }
+    }
+
+    @Test
+    public void testUnsetBuilder() {
+        assertThrows(IllegalStateException.class,
+                () -> new LandmarkIndex.LandmarkIndexBuilder<Vertex, Edge<Vertex>>().build());
+        assertThrows(IllegalArgumentException.class,
+                () -> new LandmarkIndex.LandmarkIndexBuilder<Vertex, Edge<Vertex>>().landmarks(0));
+    }
+}
@@ -0,0 +1,180 @@
+package cpen221.mp2;
+
+import cpen221.mp2.graph.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PackedAMGraphTest {
+
+    @Test
+    public void testEdges() {
+        Vertex v1 = new Vertex(1, "A");
+        Vertex v2 = new Vertex(2, "B");
+        Vertex v3 = new Vertex(3, "C");
+        Vertex v4 = new Vertex(4, "D");
+
+        Edge<Vertex> e1 = new Edge<>(v1, v2, 5);
+        Edge<Vertex> e2 = new Edge<>(v2, v3, 0);
+        Edge<Vertex> e3 = new Edge<>(v1, v4, 90);
+
+        MGraph<Vertex, Edge<Vertex>> g = new PackedAMGraph<Vertex, Edge<Vertex>>(10, Edge::new);
+        g.addVertex(v1);
+        g.addVertex(v2);
+        g.addVertex(v3);
+        g.addVertex(v4);
+        assertTrue(g.addEdge(e1));
+        assertTrue(g.addEdge(e2));
+        assertTrue(g.addEdge(e3));
+        assertFalse(g.addEdge(new Edge<>(v2, v1, 8)));
+
+        assertTrue(g.edge(v3, v2));
+        assertTrue(g.edge(e3));
+        assertFalse(g.edge(v1, v3));
+        assertEquals(0, g.edgeLength(v2, v3));
+        assertEquals(90, g.edgeLength(v4, v1));
+        assertThrows(IllegalArgumentException.class, () -> g.edgeLength(v1, v3));
+        assertEquals(95, g.edgeLengthSum());
+        assertEquals(e1, g.getEdge(v2, v1));
+        assertEquals(5, g.getEdge(v2, v1).length());
+
+        assertTrue(g.remove(e1));
+        assertFalse(g.remove(e1));
+        assertFalse(g.edge(v1, v2));
+        assertEquals(90, g.edgeLengthSum());
+    }
+
+    @Test
+    public void testViews() {
+        Vertex v1 = new Vertex(1, "A");
+        Vertex v2 = new Vertex(2, "B");
+        Vertex v3 = new Vertex(3, "C");
+
+        Edge<Vertex> e1 = new Edge<>(v1, v2, 5);
+        Edge<Vertex> e2 = new Edge<>(v2, v3, 7);
+
+        MGraph<Vertex, Edge<Vertex>> g = new PackedAMGraph<Vertex, Edge<Vertex>>(3, Edge::new);
+        g.addVertex(v1);
+        g.addVertex(v2);
+        g.addVertex(v3);
+        g.addEdge(e1);
+
+        Set<Vertex> vertices = g.allVertices();
+        Set<Edge<Vertex>> edges = g.allEdges();
+        Set<Edge<Vertex>> incident = g.allEdges(v2);
+        Map<Vertex, Edge<Vertex>> neighbours = g.getNeighbours(v2);
+
+        assertEquals(Set.of(v1, v2, v3), vertices);
+        assertEquals(Set.of(e1), edges);
+        assertEquals(Map.of(v1, e1), neighbours);
+        assertEquals(5, neighbours.get(v1).length());
+
+        g.addEdge(e2);
+        assertEquals(Set.of(e1, e2), edges);
+        assertEquals(Set.of(e1, e2), incident);
+        assertEquals(Map.of(v1, e1, v3, e2), neighbours);
+
+        assertThrows(UnsupportedOperationException.class, () -> vertices.remove(v1));
+        assertThrows(UnsupportedOperationException.class, () -> edges.clear());
+        assertThrows(UnsupportedOperationException.class, () -> neighbours.remove(v3));
+
+        //the matrix grows past its initial capacity, and the views follow it
+        Vertex v4 = new Vertex(4, "D");
+        Edge<Vertex> e3 = new Edge<>(v4, v1, 9);
+        assertTrue(g.addVertex(v4));
+        assertTrue(g.addEdge(e3));
+        assertEquals(Set.of(v1, v2, v3, v4), vertices);
+        assertEquals(Set.of(e1, e2, e3), edges);
+        assertEquals(21, g.edgeLengthSum());
+        assertEquals(9, g.edgeLength(v1, v4));
+        assertEquals(7, g.edgeLength(v3, v2));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PackedAMGraph<Vertex, Edge<Vertex>>(1, Edge::new));
+    }
+
+    @Test
+    public void testViewsAfterRemove() {
+        Vertex v1 = new Vertex(1, "A");
+        Vertex v2 = new Vertex(2, "B");
+        Vertex v3 = new Vertex(3, "C");
+        Vertex v4 = new Vertex(4, "D");
+
+        Edge<Vertex> e1 = new Edge<>(v1, v2, 5);
+        Edge<Vertex> e2 = new Edge<>(v3, v4, 7);
+        Edge<Vertex> e3 = new Edge<>(v4, v2, 2);
+
+        MGraph<Vertex, Edge<Vertex>> g = new PackedAMGraph<Vertex, Edge<Vertex>>(4, Edge::new);
+        g.addVertex(v1);
+        g.addVertex(v2);
+        g.addVertex(v3);
+        g.addVertex(v4);
+        g.addEdge(e1);
+        g.addEdge(e2);
+        g.addEdge(e3);
+
+        Map<Vertex, Edge<Vertex>> removedNeighbours = g.getNeighbours(v1);
+        Set<Edge<Vertex>> removedIncident = g.allEdges(v1);
+        Map<Vertex, Edge<Vertex>> movedNeighbours = g.getNeighbours(v4);
+        Set<Edge<Vertex>> movedIncident = g.allEdges(v4);
+
+        //v4 moves into the index v1 leaves
+        assertTrue(g.remove(v1));
+        assertTrue(removedNeighbours.isEmpty());
+        assertNull(removedNeighbours.get(v2));
+        assertTrue(removedIncident.isEmpty());
+        assertFalse(removedIncident.contains(e1));
+        assertEquals(Set.of(v3, v2), movedNeighbours.keySet());
+        assertEquals(2, movedNeighbours.get(v2).length());
+        assertEquals(Set.of(e2, e3), movedIncident);
+        assertEquals(Set.of(v4), g.getNeighbours(v2).keySet());
+    }
+
+    @Test
+    public void testRemoveVertex() {
+        Random r = new Random(5);
+        MGraph<Vertex, Edge<Vertex>> g = new PackedAMGraph<Vertex, Edge<Vertex>>(Edge::new);
+        MGraph<Vertex, Edge<Vertex>> expected = new ALGraph<>();
+        Vertex[] vertices = new Vertex[70];
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = new Vertex(i, "v" + i);
+            g.addVertex(vertices[i]);
+            expected.addVertex(vertices[i]);
+        }
+        for (int k = 0; k < 600; k++) {
+            Edge<Vertex> edge = new Edge<>(vertices[r.nextInt(35)], vertices[35 + r.nextInt(35)], r.nextInt(50));
+            assertEquals(expected.addEdge(edge), g.addEdge(edge));
+        }
+
+        for (int k = 0; k < 30; k++) {
+            Vertex v = vertices[r.nextInt(vertices.length)];
+            assertEquals(expected.remove(v), g.remove(v));
+            assertEquals(expected.allVertices(), g.allVertices());
+            assertEquals(expected.allEdges(), g.allEdges());
+            assertEquals(expected.allEdges().size(), g.allEdges().size());
+            assertEquals(expected.edgeLengthSum(), g.edgeLengthSum());
+        }
+        for (Vertex v: expected.allVertices()) {
+            Map<Vertex, Integer> lengths = new HashMap<>();
+            for (Map.Entry<Vertex, Edge<Vertex>> entry: g.getNeighbours(v).entrySet()) {
+                lengths.put(entry.getKey(), entry.getValue().length());
+            }
+            Map<Vertex, Integer> expectedLengths = new HashMap<>();
+            for (Map.Entry<Vertex, Edge<Vertex>> entry: expected.getNeighbours(v).entrySet()) {
+                expectedLengths.put(entry.getKey(), entry.getValue().length());
+            }
+            assertEquals(expectedLengths, lengths);
+            assertEquals(new HashSet<>(expected.allEdges(v)), g.allEdges(v));
+            assertEquals(v, g.vertexById(v.id()));
+        }
+
+        Vertex added = new Vertex(100, "new");
+        assertTrue(g.addVertex(added));
+        assertTrue(g.getNeighbours(added).isEmpty());
+    }
+}
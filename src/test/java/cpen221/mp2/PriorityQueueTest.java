@@ -0,0 +1,144 @@
+package cpen221.mp2;
+
+import cpen221.mp2.util.BucketQueue;
+import cpen221.mp2.util.DaryHeap;
+import cpen221.mp2.util.HeapQueue;
+import cpen221.mp2.util.PairingHeap;
+import cpen221.mp2.util.PriorityQueue;
+import cpen221.mp2.util.RadixHeap;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PriorityQueueTest {
+
+    private static final int CAPACITY = 200;
+    private static final int SPREAD = 50;
+
+    private static List<Supplier<PriorityQueue>> queues() {
+        return List.of(HeapQueue::new, () -> new DaryHeap(CAPACITY), () -> new PairingHeap(CAPACITY),
+                () -> new RadixHeap(CAPACITY), () -> new BucketQueue(CAPACITY, SPREAD));
+    }
+
+    private static List<Supplier<PriorityQueue>> heaps() {
+        return List.of(HeapQueue::new, () -> new DaryHeap(CAPACITY), () -> new DaryHeap(CAPACITY, 2),
+                () -> new PairingHeap(CAPACITY));
+    }
+
+    /**
+     * Run a monotone workload like Dijkstra's: every new or lowered priority is the
+     * last polled priority plus at most SPREAD. Each polled priority must be the
+     * smallest one in the queue.
+     */
+    @Test
+    public void testMonotoneWorkload() {
+        for (Supplier<PriorityQueue> factory: queues()) {
+            Random r = new Random(5);
+            PriorityQueue queue = factory.get();
+            int[] priority = new int[CAPACITY];
+            Arrays.fill(priority, -1);
+            int last = 0;
+            queue.add(0, 0);
+            priority[0] = 0;
+            int polled = 0;
+            while (queue.size() > 0) {
+                int v = queue.poll();
+                assertEquals(-1, Arrays.stream(priority).filter(p -> p >= 0 && p < priority[v]).findAny().orElse(-1));
+                last = priority[v];
+                priority[v] = -2;
+                polled++;
+
+                for (int k = 0; k < 3; k++) {
+                    int w = r.nextInt(CAPACITY);
+                    int p = last + r.nextInt(SPREAD + 1);
+                    if (priority[w] == -1) {
+                        queue.add(w, p);
+                        priority[w] = p;
+                    } else if (priority[w] >= 0 && p < priority[w]) {
+                        queue.updatePriority(w, p);
+                        priority[w] = p;
+                    }
+                    assertTrue(priority[w] == -2 || queue.contains(w));
+                }
+            }
+            assertTrue(polled > CAPACITY / 2);
+            assertEquals(-1, Arrays.stream(priority).filter(p -> p >= 0).findAny().orElse(-1));
+        }
+    }
+
+    /**
+     * The heaps take any priorities: raise and lower them at random between polls.
+     */
+    @Test
+    public void testArbitraryUpdates() {
+        for (Supplier<PriorityQueue> factory: heaps()) {
+            Random r = new Random(8);
+            PriorityQueue queue = factory.get();
+            int[] priority = new int[CAPACITY];
+            for (int v = 0; v < CAPACITY; v++) {
+                priority[v] = r.nextInt(1000) - 500;
+                queue.add(v, priority[v]);
+            }
+            boolean[] polled = new boolean[CAPACITY];
+            while (queue.size() > 0) {
+                for (int k = 0; k < 5; k++) {
+                    int v = r.nextInt(CAPACITY);
+                    if (!polled[v]) {
+                        priority[v] = r.nextInt(1000) - 500;
+                        queue.updatePriority(v, priority[v]);
+                    }
+                }
+                int v = queue.poll();
+                polled[v] = true;
+                for (int w = 0; w < CAPACITY; w++) {
+                    assertTrue(polled[w] || priority[w] >= priority[v]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testEmptyAndDuplicates() {
+        for (Supplier<PriorityQueue> factory: queues()) {
+            PriorityQueue queue = factory.get();
+            assertThrows(NoSuchElementException.class, queue::poll);
+            assertThrows(NoSuchElementException.class, queue::peek);
+            queue.add(3, 7);
+            assertThrows(IllegalArgumentException.class, () -> queue.add(3, 8));
+            assertThrows(IllegalArgumentException.class, () -> queue.updatePriority(4, 8));
+            assertEquals(3, queue.peek());
+            assertEquals(3, queue.poll());
+            assertFalse(queue.contains(3));
+            assertEquals(0, queue.size());
+        }
+    }
+
+    @Test
+    public void testMonotoneQueuesRejectLowerPriorities() {
+        RadixHeap radix = new RadixHeap(10);
+        radix.add(1, 5);
+        radix.add(2, 9);
+        assertEquals(1, radix.poll());
+        assertThrows(IllegalArgumentException.class, () -> radix.add(3, 4));
+        assertThrows(IllegalArgumentException.class, () -> radix.updatePriority(2, 4));
+        assertThrows(IllegalArgumentException.class, () -> radix.add(10, 9));
+
+        BucketQueue buckets = new BucketQueue(10, 5);
+        buckets.add(1, 3);
+        assertThrows(IllegalArgumentException.class, () -> buckets.add(2, 11));
+        buckets.add(2, 5);
+        assertEquals(1, buckets.poll());
+        assertThrows(IllegalArgumentException.class, () -> buckets.add(3, 2));
+        buckets.add(3, 8);
+        assertEquals(2, buckets.poll());
+        assertEquals(3, buckets.poll());
+        buckets.add(4, 1);
+        assertEquals(4, buckets.poll());
+    }
+}